@@ -0,0 +1,15 @@
+#!/bin/sh
+# Clones the primary on first start and follows it as a hot standby.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  until pg_basebackup -h db -p "$DB_DOCKER_PORT" -U "$POSTGRES_USER" -D "$PGDATA" -R -X stream; do
+    echo "Waiting for primary..."
+    sleep 1
+  done
+fi
+
+chown -R postgres:postgres "$PGDATA"
+chmod 700 "$PGDATA"
+
+exec su-exec postgres postgres
@@ -0,0 +1,134 @@
+// Same scenario as products.js for machines without k6, run as a single
+// source file with Java 21:
+//
+//   java load-test/ProductsLoad.java http://localhost:8080 200 20 60 > platform.json
+//
+// Arguments are the base URL, virtual users, ramp-up seconds and measured
+// seconds. Every user loops without think time over GET /products/{id} and a
+// listing page; only requests made after the ramp-up are measured. The summary
+// uses the keys of a k6 --summary-export file, so scripts/compare-load.sh
+// reads both.
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProductsLoad {
+    private static final int MAX_ID = Integer.parseInt(System.getenv().getOrDefault("MAX_ID", "1000"));
+
+    public static void main(String[] args) throws Exception {
+        var baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        var users = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        var rampUp = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        var measured = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+
+        var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        var durations = new ConcurrentLinkedQueue<long[]>();
+        var shed = new AtomicLong();
+        var failed = new AtomicLong();
+        var start = System.nanoTime();
+        var measureFrom = start + rampUp.toNanos();
+        var end = measureFrom + measured.toNanos();
+        var threads = new ArrayList<Thread>(users);
+
+        for (int user = 0; user < users; user++) {
+            var delay = rampUp.toMillis() * user / users;
+
+            threads.add(Thread.ofVirtual().start(() -> {
+                var random = ThreadLocalRandom.current();
+                var own = new long[1024];
+                var count = 0;
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+
+                while (System.nanoTime() < end) {
+                    var uris = new String[]{
+                            baseUrl + "/products/" + (random.nextInt(MAX_ID) + 1),
+                            baseUrl + "/products?page=" + random.nextInt(100) + "&limit=10&includeTotal=false"
+                    };
+
+                    for (var uri : uris) {
+                        var sent = System.nanoTime();
+                        var status = send(client, uri);
+                        var received = System.nanoTime();
+
+                        if (sent < measureFrom || received > end) {
+                            continue;
+                        }
+
+                        if (count == own.length) {
+                            own = Arrays.copyOf(own, count * 2);
+                        }
+
+                        own[count++] = received - sent;
+
+                        // same check as products.js: shed requests are expected, other 5xx are failures
+                        if (status == 503) {
+                            shed.incrementAndGet();
+                        } else if (status < 0 || status >= 500) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }
+
+                durations.add(Arrays.copyOf(own, count));
+            }));
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var sorted = durations.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        System.out.printf(Locale.ROOT, """
+                        {"metrics":{\
+                        "http_reqs":{"count":%d,"rate":%.3f},\
+                        "http_req_duration":{"p(50)":%.3f,"p(95)":%.3f,"p(99)":%.3f,"max":%.3f},\
+                        "checks":{"fails":%d},\
+                        "shed":{"count":%d}}}
+                        """,
+                sorted.length,
+                sorted.length / (measured.toMillis() / 1000.0),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+                failed.get(),
+                shed.get()
+        );
+    }
+
+    private static int send(HttpClient client, String uri) {
+        try {
+            var request = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60)).GET().build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception exception) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        var index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+}
@@ -0,0 +1,59 @@
+// k6 load test for the product API.
+//
+// Run the same scenario against each execution mode and compare the
+// http_reqs rate and the p(99) of http_req_duration in the summary:
+//
+//   VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run
+//   k6 run --summary-export=platform.json load-test/products.js
+//
+//   VIRTUAL_THREADS_ENABLED=true ./mvnw spring-boot:run
+//   k6 run --summary-export=virtual.json load-test/products.js
+//
+//   VIRTUAL_THREADS_ENABLED=true CONCURRENCY_LIMIT_ENABLED=true ./mvnw spring-boot:run
+//   k6 run --summary-export=virtual-limited.json load-test/products.js
+//
+//   ./mvnw spring-boot:run -Dspring-boot.run.profiles=reactive
+//   k6 run --summary-export=reactive.json load-test/products.js
+//
+// Before stopping each run, keep the thread peak of the JVM alongside:
+//
+//   curl -s localhost:8080/actuator/metrics/jvm.threads.peak > platform-threads.json
+//
+// and print the runs side by side with scripts/compare-load.sh. Without k6,
+// load-test/ProductsLoad.java runs the same scenario.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_ID = Number(__ENV.MAX_ID || 1000);
+
+// requests turned away by the concurrency limiter
+const shed = new Counter('shed');
+
+export const options = {
+    scenarios: {
+        readers: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 2000) },
+                { duration: '2m', target: Number(__ENV.VUS || 2000) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const id = Math.floor(Math.random() * MAX_ID) + 1;
+    const byId = http.get(`${BASE_URL}/products/${id}`, { tags: { endpoint: 'getById' } });
+    check(byId, { 'getById not 5xx': (r) => r.status < 500 || r.status === 503 });
+    shed.add(byId.status === 503 ? 1 : 0);
+
+    const page = Math.floor(Math.random() * 100);
+    const list = http.get(`${BASE_URL}/products?page=${page}&limit=10&includeTotal=false`, { tags: { endpoint: 'getAll' } });
+    check(list, { 'getAll not 5xx': (r) => r.status < 500 || r.status === 503 });
+    shed.add(list.status === 503 ? 1 : 0);
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Builds the application, extracts the jar and records a CDS archive from a
+# training run that exits right after the context refresh.
+#
+#   ./scripts/build-cds.sh
+#   cd target/app && java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar product-0.0.1-SNAPSHOT.jar
+#
+# The training run needs the same environment as a normal start (DB_* variables)
+# but no reachable database: migrations are skipped and Hibernate doesn't read
+# JDBC metadata at boot.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -B -q -DskipTests package
+
+jar="$(find target -maxdepth 1 -name 'product-*.jar' ! -name '*-plain.jar' | head -n 1)"
+out="target/app"
+
+rm -rf "$out"
+java -Djarmode=tools -jar "$jar" extract --destination "$out"
+
+cd "$out"
+java \
+  -XX:ArchiveClassesAtExit=application.jsa \
+  -Dspring.context.exit=onRefresh \
+  -Dspring.aot.enabled=true \
+  -Dspring.flyway.enabled=false \
+  -jar "$(basename "$jar")"
+
+echo "CDS archive written to $out/application.jsa"
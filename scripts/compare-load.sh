@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Prints k6 summaries of load-test/products.js side by side: request rate,
+# latency percentiles, failed checks and, when <mode>-threads.json was saved
+# from /actuator/metrics/jvm.threads.peak next to the summary, the JVM thread
+# peak of that run.
+#
+#   ./scripts/compare-load.sh platform.json virtual.json reactive.json
+#
+# Needs jq.
+set -euo pipefail
+
+if [ "$#" -eq 0 ]; then
+  echo "usage: $0 <k6 summary json>..." >&2
+  exit 1
+fi
+
+printf "%-12s %10s %10s %10s %10s %8s %8s\n" "mode" "req/s" "p(50) ms" "p(95) ms" "p(99) ms" "failed" "threads"
+
+for summary in "$@"; do
+  mode="$(basename "$summary" .json)"
+  threads_file="$(dirname "$summary")/$mode-threads.json"
+  threads="-"
+
+  if [ -f "$threads_file" ]; then
+    threads="$(jq -r '.measurements[] | select(.statistic == "VALUE") | .value | floor' "$threads_file")"
+  fi
+
+  jq -r --arg mode "$mode" --arg threads "$threads" '
+    [
+      $mode,
+      (.metrics.http_reqs.rate | floor),
+      (.metrics.http_req_duration["p(50)"] * 100 | round / 100),
+      (.metrics.http_req_duration["p(95)"] * 100 | round / 100),
+      (.metrics.http_req_duration["p(99)"] * 100 | round / 100),
+      (.metrics.checks.fails // 0),
+      $threads
+    ] | @tsv
+  ' "$summary" | while IFS=$'\t' read -r name rate p50 p95 p99 failed peak; do
+    printf "%-12s %10s %10s %10s %10s %8s %8s\n" "$name" "$rate" "$p50" "$p95" "$p99" "$failed" "$peak"
+  done
+done
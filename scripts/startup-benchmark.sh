@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Measures time to first request: from launching the JVM until
+# GET /products answers 200, for the plain jar, AOT, CDS and AOT + CDS.
+#
+#   ./scripts/build-cds.sh
+#   RUNS=5 ./scripts/startup-benchmark.sh
+#
+# Needs the database from docker-compose and the DB_* variables of .env.
+set -euo pipefail
+
+cd "$(dirname "$0")/../target/app"
+
+RUNS="${RUNS:-5}"
+PORT="${SERVER_PORT:-8080}"
+URL="http://localhost:$PORT/products?limit=10&includeTotal=false"
+JAR="$(find . -maxdepth 1 -name 'product-*.jar' | head -n 1)"
+
+declare -A MODES=(
+  [plain]=""
+  [aot]="-Dspring.aot.enabled=true"
+  [cds]="-XX:SharedArchiveFile=application.jsa"
+  [aot+cds]="-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true"
+)
+
+measure() {
+  local flags="$1"
+  local start end pid
+
+  start="$(date +%s%N)"
+  # shellcheck disable=SC2086
+  java $flags -Dserver.port="$PORT" -jar "$JAR" > /dev/null 2>&1 &
+  pid=$!
+
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "application exited before answering" >&2
+      return 1
+    fi
+    sleep 0.01
+  done
+
+  end="$(date +%s%N)"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+
+  echo $(( (end - start) / 1000000 ))
+}
+
+printf "%-8s %s\n" "mode" "time to first request (ms), median of $RUNS runs"
+
+for mode in plain aot cds aot+cds; do
+  samples=()
+
+  for _ in $(seq "$RUNS"); do
+    samples+=("$(measure "${MODES[$mode]}")")
+  done
+
+  median="$(printf "%s\n" "${samples[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")"
+  printf "%-8s %s (%s)\n" "$mode" "$median" "${samples[*]}"
+done
@@ -0,0 +1,34 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.exception.GlobalExceptionHandler;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    private GlobalExceptionHandler handler;
+    private ServletWebRequest request;
+
+    @Setup
+    public void setUp() {
+        this.handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        this.request = new ServletWebRequest(new MockHttpServletRequest("GET", "/products/1"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ProblemDetail> handleNotFound() {
+        return this.handler.handleResourceNotFoundException(new ResourceNotFoundException("Product not found"), this.request);
+    }
+}
@@ -0,0 +1,379 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.repository.ProductRepository;
+import org.springframework.data.domain.*;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Map-backed {@link ProductRepository} so service benchmarks measure the
+ * service itself rather than the database. Query by example is the only
+ * part left out, since no service uses it.
+ */
+final class InMemoryProductRepository implements ProductRepository {
+    private final NavigableMap<Long, Product> products = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private InMemoryProductRepository() {
+    }
+
+    static ProductRepository create(int size) {
+        var repository = new InMemoryProductRepository();
+
+        for (int i = 0; i < size; i++) {
+            var id = repository.sequence.incrementAndGet();
+            repository.products.put(id, new Product(id, "Product " + id, BigDecimal.valueOf(id % 1000, 2)));
+        }
+
+        return repository;
+    }
+
+    @Override
+    public List<Product> findByNameNormalizedIn(Collection<String> namesNormalized) {
+        var names = Set.copyOf(namesNormalized);
+        return this.products.values().stream().filter(product -> names.contains(product.getNameNormalized())).toList();
+    }
+
+    @Override
+    public Optional<ProductResponse> findResponseById(Long id) {
+        return findById(id).map(ProductResponse::fromEntity);
+    }
+
+    @Override
+    public List<ProductResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return responses(findAllById(ids).stream());
+    }
+
+    @Override
+    public Page<ProductResponse> findPage(Pageable pageable) {
+        var content = responses(sorted(pageable.getSort()).stream().skip(pageable.getOffset()).limit(pageable.getPageSize()));
+        return new PageImpl<>(content, pageable, this.products.size());
+    }
+
+    @Override
+    public Slice<ProductResponse> findSlice(Pageable pageable) {
+        var content = responses(sorted(pageable.getSort()).stream().skip(pageable.getOffset()).limit(pageable.getPageSize() + 1L));
+        var hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public List<ProductResponse> findFirst(Sort sort, Limit limit) {
+        return responses(sorted(sort).stream().limit(limit.max()));
+    }
+
+    @Override
+    public List<ProductResponse> seekByIdAsc(Long id, Limit limit) {
+        return responses(this.products.tailMap(id, false).values().stream().limit(limit.max()));
+    }
+
+    @Override
+    public List<ProductResponse> seekByIdDesc(Long id, Limit limit) {
+        return responses(this.products.headMap(id, false).descendingMap().values().stream().limit(limit.max()));
+    }
+
+    @Override
+    public List<ProductResponse> seekByNameAsc(String name, Long id, Limit limit) {
+        return seek(Comparator.comparing(Product::getName), new Product(id, name, null), Sort.Direction.ASC, product -> true, limit.max());
+    }
+
+    @Override
+    public List<ProductResponse> seekByNameDesc(String name, Long id, Limit limit) {
+        return seek(Comparator.comparing(Product::getName), new Product(id, name, null), Sort.Direction.DESC, product -> true, limit.max());
+    }
+
+    @Override
+    public List<ProductResponse> seekByPriceAsc(BigDecimal price, Long id, Limit limit) {
+        return seek(Comparator.comparing(Product::getPrice), new Product(id, null, price), Sort.Direction.ASC, product -> true, limit.max());
+    }
+
+    @Override
+    public List<ProductResponse> seekByPriceDesc(BigDecimal price, Long id, Limit limit) {
+        return seek(Comparator.comparing(Product::getPrice), new Product(id, null, price), Sort.Direction.DESC, product -> true, limit.max());
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return this.products.values().stream();
+    }
+
+    @Override
+    public Optional<Product> updateById(Long id, String name, String nameNormalized, BigDecimal price) {
+        return findById(id).map(product -> update(product, name, price));
+    }
+
+    @Override
+    public Optional<Product> updateByIdAndVersion(Long id, Collection<Long> versions, String name, String nameNormalized, BigDecimal price) {
+        return findById(id).filter(product -> versions.contains(product.getVersion())).map(product -> update(product, name, price));
+    }
+
+    @Override
+    public int deleteDirectlyById(Long id) {
+        return this.products.remove(id) == null ? 0 : 1;
+    }
+
+    @Override
+    public List<Long> deleteAllByIdReturningIds(Collection<Long> ids) {
+        return ids.stream().filter(id -> this.products.remove(id) != null).toList();
+    }
+
+    @Override
+    public List<Long> deleteMatchingReturningIds(BigDecimal minPrice, BigDecimal maxPrice, String nameContains, LocalDateTime updatedBefore, int limit) {
+        // nameContains arrives LIKE-escaped; the benchmarks never pass wildcard characters
+        var filter = matching(new ProductFilter(minPrice, maxPrice, nameContains))
+                .and(product -> updatedBefore == null || product.getUpdatedAt().isBefore(updatedBefore));
+        var ids = this.products.values().stream().filter(filter).limit(limit).map(Product::getId).toList();
+
+        return deleteAllByIdReturningIds(ids);
+    }
+
+    @Override
+    public List<ProductResponse> findFiltered(ProductFilter filter, Sort sort, long offset, int limit) {
+        return responses(sorted(sort).stream().filter(matching(filter)).skip(offset).limit(limit));
+    }
+
+    @Override
+    public List<ProductResponse> seekFiltered(ProductFilter filter, ProductCursor after, Sort.Direction direction, int limit) {
+        return switch (after.sort()) {
+            case "name" -> seek(Comparator.comparing(Product::getName), new Product(after.id(), after.value(), null), direction, matching(filter), limit);
+            case "price" -> seek(Comparator.comparing(Product::getPrice), new Product(after.id(), null, new BigDecimal(after.value())), direction, matching(filter), limit);
+            default -> seek((left, right) -> 0, new Product(after.id(), null, null), direction, matching(filter), limit);
+        };
+    }
+
+    @Override
+    public long countFiltered(ProductFilter filter) {
+        return this.products.values().stream().filter(matching(filter)).count();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public <S extends Product> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Product> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Product getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Product getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Product getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new NoSuchElementException("Product " + id + " not found"));
+    }
+
+    @Override
+    public <S extends Product> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(this.sequence.incrementAndGet());
+            entity.setVersion(0L);
+        } else {
+            entity.setVersion(entity.getVersion() == null ? 0L : entity.getVersion() + 1);
+        }
+
+        entity.setUpdatedAt(LocalDateTime.now());
+        this.products.put(entity.getId(), entity);
+
+        return entity;
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAll(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false).map(this::save).toList();
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return Optional.ofNullable(this.products.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return this.products.containsKey(id);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return List.copyOf(this.products.values());
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).map(this.products::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public long count() {
+        return this.products.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        this.products.remove(id);
+    }
+
+    @Override
+    public void delete(Product entity) {
+        this.products.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this.products::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        this.products.clear();
+    }
+
+    @Override
+    public List<Product> findAll(Sort sort) {
+        return sorted(sort);
+    }
+
+    @Override
+    public Page<Product> findAll(Pageable pageable) {
+        var content = sorted(pageable.getSort()).stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+        return new PageImpl<>(content, pageable, this.products.size());
+    }
+
+    @Override
+    public <S extends Product> Optional<S> findOne(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product> List<S> findAll(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product> List<S> findAll(Example<S> example, Sort sort) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product> long count(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product> boolean exists(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Product, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    private Product update(Product product, String name, BigDecimal price) {
+        product.setName(name);
+        product.setPrice(price);
+        product.setVersion(product.getVersion() == null ? 1L : product.getVersion() + 1);
+        product.setUpdatedAt(LocalDateTime.now());
+
+        return product;
+    }
+
+    private List<ProductResponse> seek(Comparator<Product> key, Product after, Sort.Direction direction, Predicate<Product> filter, int limit) {
+        var order = key.thenComparing(Product::getId);
+        var comparator = direction.isAscending() ? order : order.reversed();
+
+        return responses(this.products.values().stream()
+                .filter(filter)
+                .filter(product -> comparator.compare(product, after) > 0)
+                .sorted(comparator)
+                .limit(limit));
+    }
+
+    private static Predicate<Product> matching(ProductFilter filter) {
+        var nameContains = Product.normalizeName(filter.nameContains());
+
+        return product -> (filter.minPrice() == null || product.getPrice().compareTo(filter.minPrice()) >= 0)
+                && (filter.maxPrice() == null || product.getPrice().compareTo(filter.maxPrice()) <= 0)
+                && (nameContains == null || product.getNameNormalized().contains(nameContains));
+    }
+
+    private static List<ProductResponse> responses(Stream<Product> products) {
+        return products.map(ProductResponse::fromEntity).toList();
+    }
+
+    private List<Product> sorted(Sort sort) {
+        Comparator<Product> comparator = null;
+
+        for (var order : sort) {
+            Comparator<Product> next = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(Product::getName);
+                case "price" -> Comparator.comparing(Product::getPrice);
+                default -> Comparator.comparing(Product::getId);
+            };
+
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+
+        var values = new ArrayList<>(this.products.values());
+
+        if (comparator != null) {
+            values.sort(comparator);
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private ProductRequest request;
+    private Product entity;
+
+    @Setup
+    public void setUp() {
+        this.request = new ProductRequest(null, "Henderson", new BigDecimal("10.50"));
+        this.entity = new Product(1L, "Henderson", new BigDecimal("10.50"));
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return ProductRequest.toEntity(this.request);
+    }
+
+    @Benchmark
+    public ProductResponse fromEntity() {
+        return ProductResponse.fromEntity(this.entity);
+    }
+}
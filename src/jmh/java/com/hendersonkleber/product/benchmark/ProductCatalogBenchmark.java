@@ -0,0 +1,61 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.catalog.ProductCatalog;
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCatalogBenchmark {
+    @Param({"10000", "1000000"})
+    private int catalogSize;
+
+    private ProductCatalog catalog;
+
+    @Setup
+    public void setUp() {
+        this.catalog = ProductCatalog.of(LongStream.rangeClosed(1, this.catalogSize)
+                .mapToObj(ProductCatalogBenchmark::product)
+                .iterator());
+    }
+
+    @Benchmark
+    public Optional<ProductResponse> getById() {
+        return this.catalog.get(ThreadLocalRandom.current().nextLong(1, this.catalogSize + 1));
+    }
+
+    @Benchmark
+    public List<ProductResponse> pageById() {
+        return this.catalog.page("id", false, ThreadLocalRandom.current().nextInt(0, 100) * 10L, 10);
+    }
+
+    @Benchmark
+    public List<ProductResponse> pageByPrice() {
+        return this.catalog.page("price", true, ThreadLocalRandom.current().nextInt(0, 100) * 10L, 10);
+    }
+
+    // a price change moves the product in the price index, a rename appends its new name bytes
+    @Benchmark
+    public void update() {
+        var id = ThreadLocalRandom.current().nextLong(1, this.catalogSize + 1);
+        var price = BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(1, 100_000), 2);
+
+        this.catalog.put(new ProductResponse(id, "Product " + price + " " + id, price, LocalDateTime.now(), null));
+    }
+
+    private static ProductResponse product(long id) {
+        return new ProductResponse(id, "Product " + id, BigDecimal.valueOf(id % 1000, 2), LocalDateTime.now(), 0L);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.cache.ProductCache;
+import com.hendersonkleber.product.cache.ProductCountCache;
+import com.hendersonkleber.product.config.ProductCacheProperties;
+import com.hendersonkleber.product.config.ProductCatalogProperties;
+import com.hendersonkleber.product.config.ProductChangeProperties;
+import com.hendersonkleber.product.config.ProductCountCacheProperties;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.service.ProductCatalogService;
+import com.hendersonkleber.product.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductServiceBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var productRepository = InMemoryProductRepository.create(CATALOG_SIZE);
+
+        this.productService = new ProductService(
+                productRepository,
+                new ProductCountCache(new ProductCountCacheProperties(Duration.ofSeconds(30)), meterRegistry),
+                new ProductCache(
+                        new ProductCacheProperties(this.cacheEnabled, CATALOG_SIZE, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                        meterRegistry
+                ),
+                // disabled, so it never reaches the change feed
+                new ProductCatalogService(
+                        productRepository,
+                        null,
+                        new ProductCatalogProperties(false, null, Duration.ofSeconds(1), 1000, Duration.ofMinutes(5)),
+                        new ProductChangeProperties(Duration.ofSeconds(30), Duration.ofMillis(500), Duration.ofDays(7), Duration.ofMinutes(10), 1000),
+                        meterRegistry
+                ),
+                event -> {
+                },
+                meterRegistry
+        );
+    }
+
+    @Benchmark
+    public ProductResponse getById() {
+        return this.productService.getById(ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1));
+    }
+
+    @Benchmark
+    public PaginatedResponse<ProductResponse> getAll() {
+        return this.productService.getAll(ThreadLocalRandom.current().nextInt(0, 100), 10, "id", "desc", true, ProductFilter.NONE);
+    }
+
+    @Benchmark
+    public CursorPaginatedResponse<ProductResponse> getAllByCursor() {
+        return this.productService.getAllByCursor(null, 10, "id", "desc", ProductFilter.NONE);
+    }
+
+    @Benchmark
+    public void createThenDelete() {
+        var name = "Benchmark " + ThreadLocalRandom.current().nextLong();
+        var created = this.productService.create(new ProductRequest(null, name, BigDecimal.TEN));
+
+        this.productService.delete(created.id());
+    }
+}
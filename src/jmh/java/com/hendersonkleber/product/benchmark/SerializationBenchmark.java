@@ -0,0 +1,99 @@
+package com.hendersonkleber.product.benchmark;
+
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost of a list page as JSON and CBOR, raw and gzipped the way
+ * the server compresses responses. {@link #main} prints the payload size of
+ * each combination without running the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "50"})
+    private int pageSize;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper mapper;
+    private PaginatedResponse<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        this.mapper = mapper(this.format);
+        this.page = page(this.pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return serialize(this.mapper, this.page, this.gzip);
+    }
+
+    /**
+     * Prints the payload size of every parameter combination; the README shows
+     * how to run it.
+     */
+    public static void main(String[] args) {
+        for (var pageSize : List.of(10, 50)) {
+            for (var format : List.of("json", "cbor")) {
+                for (var gzip : List.of(false, true)) {
+                    var bytes = serialize(mapper(format), page(pageSize), gzip);
+                    System.out.printf("%s%s page of %d: %d bytes%n", format, gzip ? "+gzip" : "", pageSize, bytes.length);
+                }
+            }
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return format.equals("cbor") ? CBORMapper.builder().build() : JsonMapper.builder().build();
+    }
+
+    private static PaginatedResponse<ProductResponse> page(int pageSize) {
+        var now = LocalDateTime.now();
+        List<ProductResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new ProductResponse(id, "Product " + id, BigDecimal.valueOf(id * 100, 2), now, 1L))
+                .toList();
+
+        return new PaginatedResponse<>(content, 100, 100L * pageSize, true);
+    }
+
+    private static byte[] serialize(ObjectMapper mapper, PaginatedResponse<ProductResponse> page, boolean gzip) {
+        var bytes = mapper.writeValueAsBytes(page);
+        return gzip ? gzip(bytes) : bytes;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var output = new ByteArrayOutputStream(bytes.length);
+
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,132 @@
+package com.hendersonkleber.product.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hendersonkleber.product.config.ProductCacheProperties;
+import com.hendersonkleber.product.datasource.PrimaryReads;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of {@link ProductResponse} by id. An empty value
+ * records a missing product so repeated lookups of unknown ids don't reach
+ * the database. Concurrent misses of one id share a single load, read from
+ * the primary so a lagging replica can't put an old row in the cache.
+ */
+@Component
+public class ProductCache {
+    private final AsyncCache<Long, Optional<ProductResponse>> cache;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(Expiry.<Long, Optional<ProductResponse>>creating(
+                        (id, value) -> value.isPresent() ? properties.ttl() : properties.negativeTtl()
+                ))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "products");
+    }
+
+    public boolean isEnabled() {
+        return this.cache != null;
+    }
+
+    public Optional<ProductResponse> get(Long id, Function<Long, Optional<ProductResponse>> loader) {
+        if (this.cache == null) {
+            return loader.apply(id);
+        }
+
+        var loading = new CompletableFuture<Optional<ProductResponse>>();
+        var future = this.cache.get(id, (key, executor) -> loading);
+
+        if (future != loading) {
+            return await(future);
+        }
+
+        // loaded outside the map's lock, which would pin the carrier of a virtual thread for the whole query
+        try {
+            var value = PrimaryReads.run(() -> loader.apply(id));
+            loading.complete(value);
+            return value;
+        } catch (Throwable exception) {
+            loading.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Returns the cached entries for {@code ids} and loads the others with a
+     * single call to {@code loader}. Only products found are cached: a bulk
+     * lookup of unknown ids would otherwise evict real entries.
+     */
+    public Map<Long, Optional<ProductResponse>> getAll(
+            Collection<Long> ids,
+            Function<Set<Long>, Map<Long, Optional<ProductResponse>>> loader
+    ) {
+        if (this.cache == null) {
+            return loader.apply(Set.copyOf(ids));
+        }
+
+        return await(this.cache.getAll(ids, (missing, executor) -> CompletableFuture.completedFuture(found(PrimaryReads.run(() -> loader.apply(Set.copyOf(missing)))))));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductEvent(ProductEvent event) {
+        invalidate(event.id());
+    }
+
+    public void invalidate(Long id) {
+        if (this.cache != null) {
+            this.cache.synchronous().invalidate(id);
+        }
+    }
+
+    private static Map<Long, Optional<ProductResponse>> found(Map<Long, Optional<ProductResponse>> loaded) {
+        var found = new HashMap<Long, Optional<ProductResponse>>();
+
+        loaded.forEach((id, product) -> {
+            if (product.isPresent()) {
+                found.put(id, product);
+            }
+        });
+
+        return found;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw exception;
+        }
+    }
+}
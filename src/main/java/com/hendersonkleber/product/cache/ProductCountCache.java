@@ -0,0 +1,61 @@
+package com.hendersonkleber.product.cache;
+
+import com.hendersonkleber.product.config.ProductCountCacheProperties;
+import com.hendersonkleber.product.event.ProductEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the last product total for a bounded staleness window so listings
+ * don't run a COUNT(*) on every request.
+ */
+@Component
+public class ProductCountCache {
+    private final long ttlNanos;
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductCountCache(ProductCountCacheProperties properties, MeterRegistry meterRegistry) {
+        this.ttlNanos = properties.ttl().toNanos();
+        this.hits = Counter.builder("product.count.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("product.count.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public OptionalLong get() {
+        var current = this.entry.get();
+
+        if (current == null || System.nanoTime() - current.storedAt() >= this.ttlNanos) {
+            this.misses.increment();
+            return OptionalLong.empty();
+        }
+
+        this.hits.increment();
+        return OptionalLong.of(current.count());
+    }
+
+    public void put(long count) {
+        if (this.ttlNanos > 0) {
+            this.entry.set(new Entry(count, System.nanoTime()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductEvent(ProductEvent event) {
+        if (event.type() != ProductEvent.Type.UPDATED) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        this.entry.set(null);
+    }
+
+    private record Entry(long count, long storedAt) {
+    }
+}
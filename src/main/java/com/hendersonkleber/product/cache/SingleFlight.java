@@ -0,0 +1,63 @@
+package com.hendersonkleber.product.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs
+ * the loader and every caller arriving while it runs gets the same result, or
+ * the same exception. Nothing is kept once the load finishes.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("product.reads.coalesced")
+                .description("Reads answered by a concurrent identical read instead of their own query")
+                .tag("read", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        var future = new CompletableFuture<V>();
+        var existing = this.inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            this.coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            var value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (Throwable exception) {
+            future.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw exception;
+        }
+    }
+}
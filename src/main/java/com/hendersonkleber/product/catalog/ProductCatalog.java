@@ -0,0 +1,531 @@
+package com.hendersonkleber.product.catalog;
+
+import com.hendersonkleber.product.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * Columnar in-memory copy of {@code tb_product}, with slots kept sorted by
+ * id and price to serve those listing orders.
+ */
+public class ProductCatalog {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PRICE_SCALE = 2;
+    private static final long NULL = Long.MIN_VALUE;
+
+    private long[] ids;
+    private long[] prices;
+    private long[] updatedAt;
+    private long[] versions;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private byte[] names;
+    private int namesUsed;
+    private int namesLive;
+    private int slots;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private int[] byId;
+    private int[] byPrice;
+    private int size;
+
+    private final Map<Long, Long> removed = new HashMap<>();
+    private long removals;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductCatalog() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY * 16);
+    }
+
+    private ProductCatalog(int capacity, int nameCapacity) {
+        this.ids = new long[capacity];
+        this.prices = new long[capacity];
+        this.updatedAt = new long[capacity];
+        this.versions = new long[capacity];
+        this.nameOffsets = new int[capacity];
+        this.nameLengths = new int[capacity];
+        this.names = new byte[nameCapacity];
+        this.byId = new int[capacity];
+        this.byPrice = new int[capacity];
+    }
+
+    /**
+     * Builds a catalog in one pass, sorting each index once at the end
+     * instead of inserting into it product by product.
+     */
+    public static ProductCatalog of(Iterator<ProductResponse> products) {
+        var catalog = new ProductCatalog();
+
+        while (products.hasNext()) {
+            catalog.write(catalog.slots++, products.next());
+        }
+
+        catalog.size = catalog.slots;
+        catalog.byId = catalog.identity(catalog.ids.length);
+        catalog.byPrice = catalog.identity(catalog.ids.length);
+        sort(catalog.byId, catalog.size, catalog::compareById);
+        sort(catalog.byPrice, catalog.size, catalog::compareByPrice);
+
+        return catalog;
+    }
+
+    /**
+     * Adds or replaces a product. A product older than the one held, by
+     * version, or one removed already is ignored, so a late re-read can't
+     * undo a newer change.
+     */
+    public void put(ProductResponse product) {
+        this.lock.writeLock().lock();
+
+        try {
+            if (this.removed.containsKey(product.id())) {
+                return;
+            }
+
+            var position = find(this.byId, product.id());
+
+            if (position < 0) {
+                var slot = this.freeCount > 0 ? this.freeSlots[--this.freeCount] : this.slots++;
+
+                write(slot, product);
+                insert(this.byId, this.size, slot, this::compareById);
+                insert(this.byPrice, this.size, slot, this::compareByPrice);
+                this.size++;
+                return;
+            }
+
+            var slot = this.byId[position];
+
+            if (this.versions[slot] != NULL && product.version() != null && product.version() < this.versions[slot]) {
+                return;
+            }
+
+            // the price index is only touched when the price changed, the name bytes only when the name did
+            var sameName = decodeName(slot).equals(product.name());
+            var samePrice = this.prices[slot] == toCents(product.price());
+
+            // keys are read from the columns, so the entry leaves the index before the columns change
+            if (!samePrice) {
+                delete(this.byPrice, this.size, slot, this::compareByPrice);
+            }
+
+            if (sameName) {
+                writeColumns(slot, product);
+            } else {
+                var previousLength = this.nameLengths[slot];
+
+                write(slot, product);
+                this.namesLive -= previousLength;
+            }
+
+            if (!samePrice) {
+                insert(this.byPrice, this.size - 1, slot, this::compareByPrice);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        this.lock.writeLock().lock();
+
+        try {
+            // ids are never reused, so the id alone keeps the product from coming back
+            this.removed.put(id, ++this.removals);
+
+            var position = find(this.byId, id);
+
+            if (position < 0) {
+                return;
+            }
+
+            var slot = this.byId[position];
+
+            delete(this.byId, this.size, slot, this::compareById);
+            delete(this.byPrice, this.size, slot, this::compareByPrice);
+
+            this.namesLive -= this.nameLengths[slot];
+            this.size--;
+
+            if (this.freeCount == this.freeSlots.length) {
+                this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeCount * 2);
+            }
+
+            this.freeSlots[this.freeCount++] = slot;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sequence number of the latest removal. Taken before products are
+     * re-read, it marks the removals those reads can no longer undo.
+     */
+    public long removals() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.removals;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public void forgetRemovals(long upTo) {
+        this.lock.writeLock().lock();
+
+        try {
+            this.removed.values().removeIf(sequence -> sequence <= upTo);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ProductResponse> get(Long id) {
+        this.lock.readLock().lock();
+
+        try {
+            var position = find(this.byId, id);
+            return position < 0 ? Optional.empty() : Optional.of(read(this.byId[position]));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether {@link #page} can list in the order of {@code sort}. Names are
+     * left to the database, whose collation Java can't reproduce.
+     */
+    public static boolean supports(String sort) {
+        return sort.equals("id") || sort.equals("price");
+    }
+
+    /**
+     * Up to {@code limit} products from {@code offset} in the order of
+     * {@code sort} ({@code id} or {@code price}), ties broken by id in the
+     * same direction.
+     */
+    public List<ProductResponse> page(String sort, boolean ascending, long offset, int limit) {
+        if (!supports(sort)) {
+            throw new IllegalArgumentException("Catalog can't list products by " + sort);
+        }
+
+        this.lock.readLock().lock();
+
+        try {
+            var index = sort.equals("price") ? this.byPrice : this.byId;
+
+            if (offset >= this.size) {
+                return List.of();
+            }
+
+            var count = (int) Math.min(limit, this.size - offset);
+            var content = new ArrayList<ProductResponse>(count);
+
+            for (int i = 0; i < count; i++) {
+                var position = (int) (ascending ? offset + i : this.size - 1 - offset - i);
+                content.add(read(index[position]));
+            }
+
+            return content;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live products in id order into the buffer {@code allocator}
+     * returns for the encoded size.
+     */
+    void encode(LongFunction<ByteBuffer> allocator) {
+        this.lock.readLock().lock();
+
+        try {
+            var buffer = allocator.apply(8L + this.size * (4L * Long.BYTES + 2L * Integer.BYTES) + this.namesLive);
+            var rank = new int[this.slots];
+
+            for (int i = 0; i < this.size; i++) {
+                rank[this.byId[i]] = i;
+            }
+
+            buffer.putInt(this.size);
+            buffer.putInt(this.namesLive);
+
+            for (var column : new long[][]{this.ids, this.prices, this.updatedAt, this.versions}) {
+                for (int i = 0; i < this.size; i++) {
+                    buffer.putLong(column[this.byId[i]]);
+                }
+            }
+
+            for (int i = 0; i < this.size; i++) {
+                buffer.putInt(this.nameLengths[this.byId[i]]);
+            }
+
+            for (int i = 0; i < this.size; i++) {
+                buffer.putInt(rank[this.byPrice[i]]);
+            }
+
+            for (int i = 0; i < this.size; i++) {
+                var slot = this.byId[i];
+                buffer.put(this.names, this.nameOffsets[slot], this.nameLengths[slot]);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads what {@link #encode} wrote with bulk copies, without sorting.
+     */
+    static ProductCatalog decode(ByteBuffer buffer) {
+        var size = buffer.getInt();
+        var namesLength = buffer.getInt();
+        var catalog = new ProductCatalog(Math.max(size, INITIAL_CAPACITY), Math.max(namesLength, INITIAL_CAPACITY));
+
+        for (var column : new long[][]{catalog.ids, catalog.prices, catalog.updatedAt, catalog.versions}) {
+            buffer.asLongBuffer().get(column, 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+        }
+
+        for (var column : new int[][]{catalog.nameLengths, catalog.byPrice}) {
+            buffer.asIntBuffer().get(column, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+        }
+
+        buffer.get(catalog.names, 0, namesLength);
+
+        for (int i = 0, offset = 0; i < size; i++) {
+            catalog.nameOffsets[i] = offset;
+            catalog.byId[i] = i;
+            offset += catalog.nameLengths[i];
+        }
+
+        catalog.slots = size;
+        catalog.size = size;
+        catalog.namesUsed = namesLength;
+        catalog.namesLive = namesLength;
+
+        return catalog;
+    }
+
+    private void write(int slot, ProductResponse product) {
+        ensureCapacity(slot + 1);
+        writeColumns(slot, product);
+
+        var name = product.name().getBytes(StandardCharsets.UTF_8);
+
+        ensureNameCapacity(name.length);
+        System.arraycopy(name, 0, this.names, this.namesUsed, name.length);
+
+        this.nameOffsets[slot] = this.namesUsed;
+        this.nameLengths[slot] = name.length;
+        this.namesUsed += name.length;
+        this.namesLive += name.length;
+    }
+
+    private void writeColumns(int slot, ProductResponse product) {
+        this.ids[slot] = product.id();
+        this.prices[slot] = toCents(product.price());
+        this.updatedAt[slot] = product.updatedAt() == null ? NULL : toEpochNanos(product.updatedAt());
+        this.versions[slot] = product.version() == null ? NULL : product.version();
+    }
+
+    private ProductResponse read(int slot) {
+        return new ProductResponse(
+                this.ids[slot],
+                decodeName(slot),
+                BigDecimal.valueOf(this.prices[slot], PRICE_SCALE),
+                this.updatedAt[slot] == NULL ? null : fromEpochNanos(this.updatedAt[slot]),
+                this.versions[slot] == NULL ? null : this.versions[slot]
+        );
+    }
+
+    private String decodeName(int slot) {
+        return new String(this.names, this.nameOffsets[slot], this.nameLengths[slot], StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.ids.length) {
+            return;
+        }
+
+        var grown = Math.max(capacity, this.ids.length + (this.ids.length >> 1));
+
+        this.ids = Arrays.copyOf(this.ids, grown);
+        this.prices = Arrays.copyOf(this.prices, grown);
+        this.updatedAt = Arrays.copyOf(this.updatedAt, grown);
+        this.versions = Arrays.copyOf(this.versions, grown);
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, grown);
+        this.nameLengths = Arrays.copyOf(this.nameLengths, grown);
+        this.byId = Arrays.copyOf(this.byId, grown);
+        this.byPrice = Arrays.copyOf(this.byPrice, grown);
+    }
+
+    // renamed products leave their old bytes behind, rewritten away once they outweigh the live ones
+    private void ensureNameCapacity(int length) {
+        if (this.namesUsed + length <= this.names.length) {
+            return;
+        }
+
+        if (this.namesUsed - this.namesLive > this.namesLive) {
+            compactNames();
+        }
+
+        if (this.namesUsed + length > this.names.length) {
+            this.names = Arrays.copyOf(this.names, Math.max(this.namesUsed + length, this.names.length + (this.names.length >> 1)));
+        }
+    }
+
+    private void compactNames() {
+        var compacted = new byte[this.names.length];
+        var used = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            var slot = this.byId[i];
+
+            System.arraycopy(this.names, this.nameOffsets[slot], compacted, used, this.nameLengths[slot]);
+            this.nameOffsets[slot] = used;
+            used += this.nameLengths[slot];
+        }
+
+        this.names = compacted;
+        this.namesUsed = used;
+        this.namesLive = used;
+    }
+
+    private int find(int[] index, long id) {
+        int low = 0;
+        int high = this.size - 1;
+
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var value = this.ids[index[middle]];
+
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    // position of slot in index, or where it belongs; keys are unique because ids break ties
+    private int search(int[] index, int count, int slot, IntBinaryOperator comparator) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var compared = comparator.applyAsInt(index[middle], slot);
+
+            if (compared < 0) {
+                low = middle + 1;
+            } else if (compared > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void insert(int[] index, int count, int slot, IntBinaryOperator comparator) {
+        var position = search(index, count, slot, comparator);
+
+        System.arraycopy(index, position, index, position + 1, count - position);
+        index[position] = slot;
+    }
+
+    private void delete(int[] index, int count, int slot, IntBinaryOperator comparator) {
+        var position = search(index, count, slot, comparator);
+
+        System.arraycopy(index, position + 1, index, position, count - position - 1);
+    }
+
+    private int compareById(int left, int right) {
+        return Long.compare(this.ids[left], this.ids[right]);
+    }
+
+    private int compareByPrice(int left, int right) {
+        var compared = Long.compare(this.prices[left], this.prices[right]);
+        return compared != 0 ? compared : compareById(left, right);
+    }
+
+    private int[] identity(int length) {
+        var index = new int[length];
+
+        for (int i = 0; i < length; i++) {
+            index[i] = i;
+        }
+
+        return index;
+    }
+
+    // stable merge sort of the first count slots, primitive so a full load doesn't box every slot
+    private static void sort(int[] index, int count, IntBinaryOperator comparator) {
+        var buffer = new int[count];
+
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += 2 * width) {
+                var middle = low + width;
+                var high = Math.min(low + 2 * width, count);
+
+                if (comparator.applyAsInt(index[middle - 1], index[middle]) <= 0) {
+                    continue;
+                }
+
+                System.arraycopy(index, low, buffer, low, high - low);
+
+                for (int i = low, left = low, right = middle; i < high; i++) {
+                    index[i] = right >= high || (left < middle && comparator.applyAsInt(buffer[left], buffer[right]) <= 0)
+                            ? buffer[left++]
+                            : buffer[right++];
+                }
+            }
+        }
+    }
+
+    // numeric(15, 2) rounds half away from zero
+    private static long toCents(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long toEpochNanos(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long value) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
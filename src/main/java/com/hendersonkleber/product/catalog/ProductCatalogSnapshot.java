@@ -0,0 +1,118 @@
+package com.hendersonkleber.product.catalog;
+
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Catalog persisted to a memory-mapped file with the change feed position it
+ * is current up to, so a restarted node only replays the changes made since.
+ */
+public record ProductCatalogSnapshot(
+        ProductCatalog catalog,
+        ProductChangeCursor position,
+        Instant writtenAt
+) {
+    private static final int MAGIC = 0x50434154;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 3 * Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    public static void write(ProductCatalog catalog, ProductChangeCursor position, Path file) throws IOException {
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var mapped = new MappedByteBuffer[1];
+
+            catalog.encode(length -> {
+                try {
+                    mapped[0] = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_BYTES + length);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+
+                return mapped[0].position(HEADER_BYTES);
+            });
+
+            var buffer = mapped[0];
+            var payloadLength = buffer.position() - HEADER_BYTES;
+            var checksum = new CRC32C();
+
+            checksum.update(buffer.slice(HEADER_BYTES, payloadLength));
+
+            // little-endian header ahead of the payload
+            buffer.position(0);
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putLong(Instant.now().toEpochMilli());
+            buffer.putLong(position.txId());
+            buffer.putLong(position.id());
+            buffer.putInt(payloadLength);
+            buffer.putLong(checksum.getValue());
+            buffer.force();
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file and copies its columns into a new catalog; the copy reads
+     * straight from the page cache, with nothing to parse or sort.
+     */
+    public static ProductCatalogSnapshot read(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Catalog snapshot " + file + " is truncated");
+            }
+
+            var buffer = map(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Catalog snapshot " + file + " has an unknown format");
+            }
+
+            var writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            var position = new ProductChangeCursor(buffer.getLong(), buffer.getLong());
+            var payloadLength = buffer.getInt();
+            var expectedChecksum = buffer.getLong();
+
+            if (HEADER_BYTES + (long) payloadLength != channel.size()) {
+                throw new IOException("Catalog snapshot " + file + " is truncated");
+            }
+
+            var checksum = new CRC32C();
+
+            checksum.update(buffer.slice(HEADER_BYTES, payloadLength));
+
+            if (checksum.getValue() != expectedChecksum) {
+                throw new IOException("Catalog snapshot " + file + " is corrupted");
+            }
+
+            return new ProductCatalogSnapshot(ProductCatalog.decode(buffer.slice(HEADER_BYTES, payloadLength).order(ByteOrder.LITTLE_ENDIAN)), position, writtenAt);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot of " + size + " bytes is larger than a single mapping");
+        }
+
+        var buffer = channel.map(mode, 0, size);
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        return buffer;
+    }
+}
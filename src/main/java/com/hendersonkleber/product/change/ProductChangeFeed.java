@@ -0,0 +1,151 @@
+package com.hendersonkleber.product.change;
+
+import com.hendersonkleber.product.config.ProductChangeProperties;
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductChangeResponse;
+import com.hendersonkleber.product.exception.GoneException;
+import com.hendersonkleber.product.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Long-poll tail of the outbox. A request answers at once when there are
+ * changes after its cursor; otherwise it waits and is answered by the next
+ * poll that finds some. Waiting consumers mostly sit at the same cursor, so
+ * each poll runs one query per distinct cursor rather than one per consumer.
+ */
+@Service
+public class ProductChangeFeed {
+    private final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final Duration waitTimeout;
+    private final Duration retention;
+    private final int cleanupBatchSize;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public ProductChangeFeed(
+            ProductChangeRepository productChangeRepository,
+            PlatformTransactionManager transactionManager,
+            ProductChangeProperties properties
+    ) {
+        this.productChangeRepository = productChangeRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.waitTimeout = properties.waitTimeout();
+        this.retention = properties.retention();
+        this.cleanupBatchSize = properties.cleanupBatchSize();
+    }
+
+    public DeferredResult<CursorPaginatedResponse<ProductChangeResponse>> poll(String since, int limit) {
+        var cursor = ProductChangeCursor.decode(since);
+        var result = new DeferredResult<CursorPaginatedResponse<ProductChangeResponse>>(
+                this.waitTimeout.toMillis(),
+                new CursorPaginatedResponse<>(List.of(), cursor.encode())
+        );
+
+        var changes = this.readTemplate.execute(status -> {
+            // changes after the cursor were deleted before it could read them
+            if (!cursor.equals(ProductChangeCursor.START) && this.productChangeRepository.isPurgedAfter(cursor.txId(), cursor.id())) {
+                throw new GoneException("Cursor is older than the change feed retention, start again without since");
+            }
+
+            return this.productChangeRepository.findAfter(cursor.txId(), cursor.id(), limit);
+        });
+
+        if (changes != null && !changes.isEmpty()) {
+            result.setResult(toResponse(changes));
+            return result;
+        }
+
+        var waiter = new Waiter(cursor, limit, result);
+
+        this.waiters.add(waiter);
+        result.onCompletion(() -> this.waiters.remove(waiter));
+
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${product.changes.poll-interval:500ms}")
+    public void notifyWaiters() {
+        if (this.waiters.isEmpty()) {
+            return;
+        }
+
+        var byCursor = this.waiters.stream()
+                .filter(waiter -> !waiter.result().isSetOrExpired())
+                .collect(Collectors.groupingBy(Waiter::cursor));
+
+        byCursor.forEach((cursor, group) -> {
+            var limit = group.stream().mapToInt(Waiter::limit).max().orElse(0);
+            var changes = find(cursor, limit);
+
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            for (var waiter : group) {
+                waiter.result().setResult(toResponse(changes.subList(0, Math.min(waiter.limit(), changes.size()))));
+            }
+        });
+    }
+
+    /**
+     * Deletes expired changes in transactions of at most
+     * {@code cleanupBatchSize} rows, so neither locks nor WAL pile up behind
+     * one large delete.
+     */
+    @Scheduled(fixedDelayString = "${product.changes.cleanup-interval:10m}")
+    public void deleteExpired() {
+        var before = LocalDateTime.now().minus(this.retention);
+        var total = 0L;
+        Integer deleted;
+
+        do {
+            deleted = this.writeTemplate.execute(status -> this.productChangeRepository.deleteExpired(before, this.cleanupBatchSize));
+            total += deleted == null ? 0 : deleted;
+        } while (deleted != null && deleted == this.cleanupBatchSize);
+
+        if (total > 0) {
+            this.logger.info("Deleted {} product changes older than {}", total, before);
+        }
+    }
+
+    int getWaiting() {
+        return this.waiters.size();
+    }
+
+    private List<ProductChange> find(ProductChangeCursor cursor, int limit) {
+        return this.readTemplate.execute(status -> this.productChangeRepository.findAfter(cursor.txId(), cursor.id(), limit));
+    }
+
+    private CursorPaginatedResponse<ProductChangeResponse> toResponse(List<ProductChange> changes) {
+        return new CursorPaginatedResponse<>(
+                changes.stream().map(ProductChangeResponse::fromEntity).toList(),
+                ProductChangeCursor.of(changes.getLast()).encode()
+        );
+    }
+
+    private record Waiter(
+            ProductChangeCursor cursor,
+            int limit,
+            DeferredResult<CursorPaginatedResponse<ProductChangeResponse>> result
+    ) {
+    }
+}
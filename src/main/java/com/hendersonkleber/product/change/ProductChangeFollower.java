@@ -0,0 +1,100 @@
+package com.hendersonkleber.product.change;
+
+import com.hendersonkleber.product.datasource.PrimaryReads;
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.repository.ProductChangeRepository;
+import com.hendersonkleber.product.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps in-memory copies of the products current with the change feed,
+ * re-reading every changed product from the primary.
+ */
+@Component
+public class ProductChangeFollower {
+    // keeps each IN list far below the bind parameter limit of the driver
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate readTemplate;
+
+    public ProductChangeFollower(
+            ProductRepository productRepository,
+            ProductChangeRepository productChangeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Position to follow from after a full load read in the current
+     * transaction: every transaction older than it has committed, so its
+     * changes are already in the rows the load reads.
+     */
+    public ProductChangeCursor startPosition() {
+        return new ProductChangeCursor(this.productChangeRepository.findOldestRunningTxId() - 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Applies the changes committed after {@code after}, {@code batchSize}
+     * per query, and returns the position reached.
+     */
+    public ProductChangeCursor follow(ProductChangeCursor after, int batchSize, Consumer<ProductResponse> put, Consumer<Long> remove) {
+        var position = after;
+        List<ProductChange> changes;
+
+        do {
+            var from = position;
+
+            changes = read(() -> this.productChangeRepository.findAfter(from.txId(), from.id(), batchSize));
+
+            if (changes == null || changes.isEmpty()) {
+                return position;
+            }
+
+            var ids = List.copyOf(new LinkedHashSet<>(changes.stream().map(ProductChange::getProductId).toList()));
+
+            for (int start = 0; start < ids.size(); start += LOOKUP_CHUNK_SIZE) {
+                var chunk = ids.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, ids.size()));
+                var found = read(() -> this.productRepository.findResponsesByIdIn(chunk));
+                var present = new HashSet<Long>();
+
+                if (found != null) {
+                    found.forEach(product -> {
+                        put.accept(product);
+                        present.add(product.id());
+                    });
+                }
+
+                // ids are never reused, so a product that can't be read anymore was deleted
+                chunk.stream().filter(id -> !present.contains(id)).forEach(remove);
+            }
+
+            position = ProductChangeCursor.of(changes.getLast());
+        } while (changes.size() == batchSize);
+
+        return position;
+    }
+
+    /**
+     * Runs {@code load} in a read-only transaction on the primary; full loads
+     * call {@link #startPosition} from it.
+     */
+    public <T> T read(Supplier<T> load) {
+        return PrimaryReads.run(() -> this.readTemplate.execute(status -> load.get()));
+    }
+}
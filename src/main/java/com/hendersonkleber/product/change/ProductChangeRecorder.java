@@ -0,0 +1,28 @@
+package com.hendersonkleber.product.change;
+
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.repository.ProductChangeRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every product event to the outbox while the mutation's transaction
+ * is still open, so a change is recorded if and only if it commits.
+ */
+@Component
+public class ProductChangeRecorder {
+    private final ProductChangeRepository productChangeRepository;
+
+    public ProductChangeRecorder(ProductChangeRepository productChangeRepository) {
+        this.productChangeRepository = productChangeRepository;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductEvent(ProductEvent event) {
+        this.productChangeRepository.save(new ProductChange(event));
+    }
+}
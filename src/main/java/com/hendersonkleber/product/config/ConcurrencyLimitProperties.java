@@ -0,0 +1,21 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Adaptive bound on how many product requests run at once; the ceiling
+ * defaults to the size of the connection pool (Hikari's 10 when unset).
+ */
+@ConfigurationProperties(prefix = "product.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("10")
+        int minConcurrentRequests,
+
+        @DefaultValue("10")
+        int maxConcurrentRequests
+) {
+}
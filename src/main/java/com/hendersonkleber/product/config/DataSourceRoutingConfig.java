@@ -0,0 +1,117 @@
+package com.hendersonkleber.product.config;
+
+import com.hendersonkleber.product.datasource.ReplicaLagMonitor;
+import com.hendersonkleber.product.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replicas and everything
+ * else to the primary, when routing is enabled at startup.
+ */
+@Configuration
+// registered here too: the auto-configuration that binds them backs off next to the R2DBC pool of the reactive profile
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceRoutingConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPools replicaPools(
+            DataSourceRoutingProperties properties,
+            DataSourceProperties primaryProperties,
+            MeterRegistry meterRegistry
+    ) {
+        var pools = new LinkedHashMap<String, HikariDataSource>();
+
+        if (!properties.enabled()) {
+            return new ReplicaPools(pools);
+        }
+
+        for (var replica : properties.replicas()) {
+            var dataSource = new HikariDataSource();
+
+            dataSource.setPoolName("replica-" + replica.name());
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username() != null ? replica.username() : primaryProperties.determineUsername());
+            dataSource.setPassword(replica.password() != null ? replica.password() : primaryProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.put(replica.name(), dataSource);
+        }
+
+        return new ReplicaPools(pools);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaPools replicaPools,
+            MeterRegistry meterRegistry
+    ) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaPools.asDataSources(), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            ReplicaRoutingDataSource routingDataSource,
+            ReplicaPools replicaPools,
+            DataSourceRoutingProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        var monitor = new ReplicaLagMonitor(routingDataSource, replicaPools.asDataSources(), properties.maxReplicaLag(), meterRegistry);
+
+        if (properties.enabled()) {
+            monitor.start(properties.lagCheckInterval());
+        }
+
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            DataSourceRoutingProperties properties
+    ) {
+        // decided here rather than by a condition, which AOT processing would settle at build time
+        if (!properties.enabled()) {
+            return primaryDataSource;
+        }
+
+        var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    public record ReplicaPools(Map<String, HikariDataSource> pools) implements AutoCloseable {
+        public Map<String, DataSource> asDataSources() {
+            return new LinkedHashMap<>(this.pools);
+        }
+
+        @Override
+        public void close() {
+            this.pools.values().forEach(HikariDataSource::close);
+        }
+    }
+}
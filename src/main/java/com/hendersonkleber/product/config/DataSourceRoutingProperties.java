@@ -0,0 +1,41 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas used by read-only transactions. Replicas lagging more than
+ * {@code maxReplicaLag} behind the primary, or failing the lag check, are
+ * skipped until they catch up; with no usable replica reads go to the primary.
+ */
+@ConfigurationProperties(prefix = "product.datasource.routing")
+public record DataSourceRoutingProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("5s")
+        Duration maxReplicaLag,
+
+        @DefaultValue("5s")
+        Duration lagCheckInterval,
+
+        List<Replica> replicas
+) {
+    public record Replica(
+            String name,
+            String url,
+            String username,
+            String password,
+
+            @DefaultValue("10")
+            int maximumPoolSize
+    ) {
+    }
+
+    public List<Replica> replicas() {
+        return replicas == null ? List.of() : replicas;
+    }
+}
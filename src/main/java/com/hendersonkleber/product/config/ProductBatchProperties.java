@@ -0,0 +1,21 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Number of items validated, checked for name conflicts and flushed together
+ * by the batch endpoint. Also the maximum size of a JSON array batch.
+ * NDJSON imports are copied to a temporary file of at most
+ * {@code maxImportSize} before their transaction starts.
+ */
+@ConfigurationProperties(prefix = "product.batch")
+public record ProductBatchProperties(
+        @DefaultValue("1000")
+        int chunkSize,
+
+        @DefaultValue("100MB")
+        DataSize maxImportSize
+) {
+}
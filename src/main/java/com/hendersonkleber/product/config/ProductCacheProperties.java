@@ -0,0 +1,26 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of single products. Missing ids are cached for the
+ * shorter {@code negativeTtl}.
+ */
+@ConfigurationProperties(prefix = "product.cache")
+public record ProductCacheProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("10000")
+        long maximumSize,
+
+        @DefaultValue("10m")
+        Duration ttl,
+
+        @DefaultValue("5s")
+        Duration negativeTtl
+) {
+}
@@ -0,0 +1,27 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * In-memory catalog serving unfiltered listings and reads by id.
+ */
+@ConfigurationProperties(prefix = "product.catalog")
+public record ProductCatalogProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        String snapshotPath,
+
+        @DefaultValue("1s")
+        Duration refreshInterval,
+
+        @DefaultValue("1000")
+        int refreshBatchSize,
+
+        @DefaultValue("5m")
+        Duration snapshotInterval
+) {
+}
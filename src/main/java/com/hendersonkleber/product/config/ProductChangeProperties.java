@@ -0,0 +1,28 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Change feed served by {@code GET /products/changes}.
+ */
+@ConfigurationProperties(prefix = "product.changes")
+public record ProductChangeProperties(
+        @DefaultValue("30s")
+        Duration waitTimeout,
+
+        @DefaultValue("500ms")
+        Duration pollInterval,
+
+        @DefaultValue("7d")
+        Duration retention,
+
+        @DefaultValue("10m")
+        Duration cleanupInterval,
+
+        @DefaultValue("1000")
+        int cleanupBatchSize
+) {
+}
@@ -0,0 +1,16 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Staleness window of the cached product total. A zero ttl disables the cache.
+ */
+@ConfigurationProperties(prefix = "product.count-cache")
+public record ProductCountCacheProperties(
+        @DefaultValue("30s")
+        Duration ttl
+) {
+}
@@ -0,0 +1,28 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * In-memory name search. {@code minSimilarity} is the trigram similarity a
+ * name needs to be returned as a fuzzy match. Changes made through other
+ * nodes are pulled from the change feed every {@code refreshInterval}, up to
+ * {@code refreshBatchSize} changes per query.
+ */
+@ConfigurationProperties(prefix = "product.search")
+public record ProductSearchProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("0.3")
+        double minSimilarity,
+
+        @DefaultValue("1s")
+        Duration refreshInterval,
+
+        @DefaultValue("1000")
+        int refreshBatchSize
+) {
+}
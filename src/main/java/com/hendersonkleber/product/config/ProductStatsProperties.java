@@ -0,0 +1,19 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Price statistics served by {@code GET /products/stats}. The price deltas
+ * written by every product change are folded into one row per histogram
+ * bucket every {@code compactInterval}, which bounds how many rows a stats
+ * read has to sum.
+ */
+@ConfigurationProperties(prefix = "product.stats")
+public record ProductStatsProperties(
+        @DefaultValue("1m")
+        Duration compactInterval
+) {
+}
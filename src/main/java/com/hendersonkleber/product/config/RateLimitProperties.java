@@ -0,0 +1,50 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token bucket per client and endpoint.
+ */
+@ConfigurationProperties(prefix = "product.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("X-Client-Id")
+        String clientHeader,
+
+        List<String> trustedProxies,
+
+        @DefaultValue("100")
+        int capacity,
+
+        @DefaultValue("50")
+        double refillPerSecond,
+
+        @DefaultValue("100000")
+        long maxBuckets,
+
+        @DefaultValue("10m")
+        Duration idleTimeout,
+
+        Map<String, Bucket> endpoints
+) {
+    public record Bucket(
+            int capacity,
+            double refillPerSecond
+    ) {
+    }
+
+    public List<String> trustedProxies() {
+        return trustedProxies == null ? List.of() : trustedProxies;
+    }
+
+    public Map<String, Bucket> endpoints() {
+        return endpoints == null ? Map.of() : endpoints;
+    }
+}
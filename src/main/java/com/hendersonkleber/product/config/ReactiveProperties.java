@@ -0,0 +1,30 @@
+package com.hendersonkleber.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * R2DBC connection of the {@code reactive} profile. JDBC stays configured in
+ * that mode for Flyway and the scheduled jobs, so these are separate from
+ * {@code spring.datasource.*}.
+ */
+@ConfigurationProperties(prefix = "product.reactive")
+public record ReactiveProperties(
+        String url,
+
+        String username,
+
+        String password,
+
+        @DefaultValue("20")
+        int maxPoolSize,
+
+        @DefaultValue("2s")
+        Duration acquireTimeout,
+
+        @DefaultValue("500")
+        int fetchSize
+) {
+}
@@ -0,0 +1,50 @@
+package com.hendersonkleber.product.config;
+
+import com.hendersonkleber.product.interceptor.ConcurrencyLimitInterceptor;
+import com.hendersonkleber.product.interceptor.RateLimitInterceptor;
+import com.hendersonkleber.product.interceptor.VaryAcceptInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+public class WebConfig implements WebMvcConfigurer {
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final VaryAcceptInterceptor varyAcceptInterceptor;
+    private final RateLimitProperties rateLimitProperties;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebConfig(
+            ConcurrencyLimitProperties concurrencyLimitProperties,
+            ConcurrencyLimitInterceptor concurrencyLimitInterceptor,
+            VaryAcceptInterceptor varyAcceptInterceptor,
+            RateLimitProperties rateLimitProperties,
+            RateLimitInterceptor rateLimitInterceptor
+    ) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.varyAcceptInterceptor = varyAcceptInterceptor;
+        this.rateLimitProperties = rateLimitProperties;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this.varyAcceptInterceptor).addPathPatterns("/products/**");
+
+        // per-client limits run first, so a client over its rate never takes a concurrency slot
+        if (this.rateLimitProperties.enabled()) {
+            registry.addInterceptor(this.rateLimitInterceptor).addPathPatterns("/products/**");
+        }
+
+        if (this.concurrencyLimitProperties.enabled()) {
+            // long-poll requests of the change feed wait without doing work, they must not hold permits
+            registry.addInterceptor(this.concurrencyLimitInterceptor)
+                    .addPathPatterns("/products/**")
+                    .excludePathPatterns("/products/changes");
+        }
+    }
+}
@@ -1,27 +1,78 @@
 package com.hendersonkleber.product.controller;
 
+import com.hendersonkleber.product.change.ProductChangeFeed;
+import com.hendersonkleber.product.dto.BatchDeleteResponse;
+import com.hendersonkleber.product.dto.BatchResponse;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
 import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductChangeResponse;
+import com.hendersonkleber.product.dto.ProductDeleteRequest;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductLookupRequest;
+import com.hendersonkleber.product.dto.ProductLookupResponse;
 import com.hendersonkleber.product.dto.ProductRequest;
 import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.dto.ProductStatsResponse;
+import com.hendersonkleber.product.dto.SparseProductResponse;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.service.ProductBatchService;
+import com.hendersonkleber.product.service.ProductExportService;
+import com.hendersonkleber.product.service.ProductSearchService;
 import com.hendersonkleber.product.service.ProductService;
+import com.hendersonkleber.product.service.ProductStatsService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/products")
 public class ProductController {
+    private static final String FIELD = "id|name|price|updatedAt|version";
+    private static final String FIELDS_PATTERN = "(" + FIELD + ")(,(" + FIELD + "))*";
+
     private final ProductService productService;
+    private final ProductBatchService productBatchService;
+    private final ProductExportService productExportService;
+    private final ProductSearchService productSearchService;
+    private final ProductChangeFeed productChangeFeed;
+    private final ProductStatsService productStatsService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(
+            ProductService productService,
+            ProductBatchService productBatchService,
+            ProductExportService productExportService,
+            ProductSearchService productSearchService,
+            ProductChangeFeed productChangeFeed,
+            ProductStatsService productStatsService
+    ) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.productExportService = productExportService;
+        this.productSearchService = productSearchService;
+        this.productChangeFeed = productChangeFeed;
+        this.productStatsService = productStatsService;
     }
 
     @GetMapping
-    public ResponseEntity<PaginatedResponse<ProductResponse>> getAll(
+    public ResponseEntity<PaginatedResponse<?>> getAll(
             @RequestParam(defaultValue = "0")
             @PositiveOrZero(message = "Page must be greater than or equal to zero")
             int page,
@@ -37,22 +88,181 @@ public class ProductController {
 
             @RequestParam(defaultValue = "desc")
             @Pattern(regexp = "asc|desc", message = "Order must be either asc or desc")
-            String order
+            String order,
+
+            @RequestParam(defaultValue = "true")
+            boolean includeTotal,
+
+            @RequestParam(required = false)
+            @Pattern(regexp = FIELDS_PATTERN, message = "Fields must be a comma separated list of: id, name, price, updatedAt or version")
+            String fields,
+
+            @RequestParam(required = false)
+            @Positive(message = "Minimum price must be a positive value")
+            BigDecimal minPrice,
+
+            @RequestParam(required = false)
+            @Positive(message = "Maximum price must be a positive value")
+            BigDecimal maxPrice,
+
+            @RequestParam(required = false)
+            @Size(min = 2, max = 120, message = "Name filter must be between 2 and 120 characters")
+            String nameContains
+    ) {
+        var filter = new ProductFilter(minPrice, maxPrice, nameContains);
+        var response = this.productService.getAll(page, limit, sort, order, includeTotal, filter);
+        var etag = weakETag(response.content(), response.totalItems(), response.hasNext(), fields);
+
+        if (fields != null) {
+            return ResponseEntity.ok().eTag(etag).body(new PaginatedResponse<>(
+                    withOnly(response.content(), fields),
+                    response.totalPages(),
+                    response.totalItems(),
+                    response.hasNext()
+            ));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping(params = {"cursor", "!ids"})
+    public ResponseEntity<CursorPaginatedResponse<?>> getAllByCursor(
+            @RequestParam(required = false)
+            String cursor,
+
+            @RequestParam(defaultValue = "10")
+            @Min(value = 10, message = "Limit must be greater than or equal to 10")
+            @Max(value = 50, message = "Limit must be less than or equal to 50")
+            int limit,
+
+            @RequestParam(defaultValue = "id")
+            @Pattern(regexp = "id|name|price", message = "Sort must be one of: id, name or price")
+            String sort,
+
+            @RequestParam(defaultValue = "desc")
+            @Pattern(regexp = "asc|desc", message = "Order must be either asc or desc")
+            String order,
+
+            @RequestParam(required = false)
+            @Pattern(regexp = FIELDS_PATTERN, message = "Fields must be a comma separated list of: id, name, price, updatedAt or version")
+            String fields,
+
+            @RequestParam(required = false)
+            @Positive(message = "Minimum price must be a positive value")
+            BigDecimal minPrice,
+
+            @RequestParam(required = false)
+            @Positive(message = "Maximum price must be a positive value")
+            BigDecimal maxPrice,
+
+            @RequestParam(required = false)
+            @Size(min = 2, max = 120, message = "Name filter must be between 2 and 120 characters")
+            String nameContains
+    ) {
+        var filter = new ProductFilter(minPrice, maxPrice, nameContains);
+        var response = this.productService.getAllByCursor(cursor, limit, sort, order, filter);
+        var etag = weakETag(response.content(), null, response.nextCursor() != null, fields);
+
+        if (fields != null) {
+            return ResponseEntity.ok().eTag(etag).body(new CursorPaginatedResponse<>(withOnly(response.content(), fields), response.nextCursor()));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    // mapped explicitly, otherwise the ids and cursor mappings are ambiguous
+    @GetMapping(params = {"ids", "cursor"})
+    public ResponseEntity<Void> getByIdsWithCursor() {
+        throw new InvalidRequestException("Ids and cursor cannot be combined");
+    }
+
+    @GetMapping(params = {"ids", "!cursor"})
+    public ResponseEntity<ProductLookupResponse> getByIds(
+            @RequestParam
+            @NotEmpty(message = "Ids are required")
+            @Size(max = 100, message = "Ids must contain at most 100 items, use POST /products/lookup for more")
+            List<@Positive(message = "Id must be a positive number") Long> ids
+    ) {
+        var response = this.productService.getByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(path = "/lookup")
+    public ResponseEntity<ProductLookupResponse> lookup(
+            @RequestBody
+            @Valid
+            ProductLookupRequest body
     ) {
-        var response = this.productService.getAll(page, limit, sort, order);
+        var response = this.productService.getByIds(body.ids());
+        return ResponseEntity.ok(response);
+    }
 
+    @GetMapping(path = "/stats")
+    public ResponseEntity<ProductStatsResponse> getStats() {
+        var response = this.productStatsService.getStats();
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(path = "/search")
+    public ResponseEntity<List<ProductResponse>> search(
+            @RequestParam
+            @NotBlank(message = "Query is required")
+            String q,
+
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be greater than or equal to 1")
+            @Max(value = 50, message = "Limit must be less than or equal to 50")
+            int limit
+    ) {
+        var response = this.productSearchService.search(q, limit);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(path = "/changes")
+    public DeferredResult<CursorPaginatedResponse<ProductChangeResponse>> getChanges(
+            @RequestParam(required = false)
+            String since,
+
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "Limit must be greater than or equal to 1")
+            @Max(value = 1000, message = "Limit must be less than or equal to 1000")
+            int limit
+    ) {
+        return this.productChangeFeed.poll(since, limit);
+    }
+
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson")
+            @Pattern(regexp = "ndjson|csv", message = "Format must be either ndjson or csv")
+            String format
+    ) {
+        var contentType = format.equals("csv") ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        var disposition = ContentDisposition.attachment().filename("products." + format).build();
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(output -> this.productExportService.export(format, output));
+    }
+
     @GetMapping(path = "/{id}")
     public ResponseEntity<ProductResponse> getById(
             @PathVariable
             @Positive(message = "Id must be a positive number")
-            Long id
+            Long id,
+
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false)
+            String accept
     ) {
         var response = this.productService.getById(id);
 
-        return ResponseEntity.ok(response);
+        // Spring answers 304 from these validators without serializing the body
+        return ResponseEntity.ok()
+                .eTag(etag(response, accept))
+                .lastModified(response.lastModified())
+                .body(response);
     }
 
     @PostMapping
@@ -65,18 +275,46 @@ public class ProductController {
         return ResponseEntity.created(URI.create("/products/" + response.id())).body(response);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResponse> saveBatch(
+            @RequestBody
+            List<ProductRequest> body
+    ) {
+        var response = this.productBatchService.save(body);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResponse> saveBatchStream(HttpServletRequest request) throws IOException {
+        try {
+            var response = this.productBatchService.save(request.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (JacksonException exception) {
+            throw new InvalidRequestException("Malformed NDJSON body: " + exception.getOriginalMessage());
+        }
+    }
+
     @PutMapping(path = "/{id}")
     public ResponseEntity<ProductResponse> update(
             @PathVariable
             @Positive(message = "Id must be a positive number")
             Long id,
 
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+            String ifMatch,
+
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false)
+            String accept,
+
             @RequestBody
             @Valid
             ProductRequest body
     ) {
-        var response = this.productService.update(id, body);
-        return ResponseEntity.ok(response);
+        var response = this.productService.update(id, body, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(etag(response, accept))
+                .lastModified(response.lastModified())
+                .body(response);
     }
 
     @DeleteMapping(path = "/{id}")
@@ -88,4 +326,67 @@ public class ProductController {
         this.productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<BatchDeleteResponse> deleteAll(
+            @RequestBody
+            @Valid
+            ProductDeleteRequest body
+    ) {
+        var response = this.productBatchService.delete(body);
+        return ResponseEntity.ok(response);
+    }
+
+    private List<SparseProductResponse> withOnly(List<ProductResponse> content, String fields) {
+        var selected = Set.copyOf(List.of(fields.split(",")));
+
+        return content.stream().map(product -> product.withOnly(selected)).toList();
+    }
+
+    // tags the representation content negotiation picks; JSON, the first converter, takes wildcards
+    private String etag(ProductResponse response, String accept) {
+        if (accept == null) {
+            return response.etag();
+        }
+
+        try {
+            var types = MediaType.parseMediaTypes(accept);
+
+            MimeTypeUtils.sortBySpecificity(types);
+
+            for (var type : types) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    return response.etag("cbor");
+                }
+
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return response.etag();
+                }
+            }
+        } catch (InvalidMediaTypeException ignored) {
+            // rejected by content negotiation right after
+        }
+
+        return response.etag();
+    }
+
+    private String weakETag(List<ProductResponse> content, Long totalItems, boolean hasNext, String fields) {
+        long hash = 1125899906842597L;
+
+        for (var product : content) {
+            hash = 31 * hash + product.id();
+            // the version changes on every write, even two within the same millisecond
+            hash = 31 * hash + (product.version() == null ? 0 : product.version());
+        }
+
+        hash = 31 * hash + (totalItems == null ? -1 : totalItems);
+        hash = 31 * hash + (hasNext ? 1 : 0);
+        hash = 31 * hash + (fields == null ? 0 : fields.hashCode());
+
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
 }
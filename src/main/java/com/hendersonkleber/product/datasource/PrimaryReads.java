@@ -0,0 +1,33 @@
+package com.hendersonkleber.product.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions started inside {@link #run} to the primary.
+ * Reads that fill a cache use it, since a row read from a lagging replica
+ * would be served long after the replica caught up.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T run(Supplier<T> read) {
+        if (isActive()) {
+            return read.get();
+        }
+
+        ACTIVE.set(true);
+
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hendersonkleber.product.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures how far each replica is behind the primary and
+ * marks it healthy or not in the {@link ReplicaRoutingDataSource}.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+    // 0 when the replica has replayed everything it received, or when it isn't a standby at all
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, DataSource> replicas;
+    private final double maxLagSeconds;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag-monitor").daemon().factory()
+    );
+
+    public ReplicaLagMonitor(
+            ReplicaRoutingDataSource routingDataSource,
+            Map<String, DataSource> replicas,
+            Duration maxLag,
+            MeterRegistry meterRegistry
+    ) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        for (var name : replicas.keySet()) {
+            Gauge.builder("product.datasource.replica.lag", this.lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                    .description("Replication lag of the replica in seconds")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+
+            Gauge.builder("product.datasource.replica.healthy", routingDataSource, routing -> routing.isHealthy(name) ? 1 : 0)
+                    .description("Whether the replica currently receives read-only traffic")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    public void start(Duration interval) {
+        this.scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void check() {
+        this.replicas.forEach((name, dataSource) -> {
+            try (var connection = dataSource.getConnection();
+                 var statement = connection.createStatement();
+                 var result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+
+                var lag = result.getDouble(1);
+                var healthy = lag <= this.maxLagSeconds;
+
+                if (healthy != this.routingDataSource.isHealthy(name)) {
+                    this.logger.info("Replica {} is now {} with lag of {}s", name, healthy ? "healthy" : "unhealthy", lag);
+                }
+
+                this.lagSeconds.put(name, lag);
+                this.routingDataSource.setHealthy(name, healthy);
+            } catch (Exception exception) {
+                if (this.routingDataSource.isHealthy(name)) {
+                    this.logger.warn("Replica {} failed its lag check, routing reads away from it: {}", name, exception.getMessage());
+                }
+
+                this.lagSeconds.remove(name);
+                this.routingDataSource.setHealthy(name, false);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+}
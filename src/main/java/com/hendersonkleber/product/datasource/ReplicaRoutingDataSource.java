@@ -0,0 +1,99 @@
+package com.hendersonkleber.product.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads read-only connections round-robin over the healthy replicas,
+ * falling back to the primary when none is healthy or inside
+ * {@link PrimaryReads#run}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicas;
+    private final List<HikariDataSource> pools;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas.keySet());
+
+        var targets = new HashMap<Object, Object>(replicas);
+        targets.put(PRIMARY, primary);
+
+        this.pools = targets.values().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .toList();
+
+        for (var name : targets.keySet()) {
+            this.routed.put((String) name, Counter.builder("product.datasource.routed")
+                    .description("Read-only connections handed out per pool")
+                    .tag("pool", (String) name)
+                    .register(meterRegistry));
+        }
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Threads waiting for a connection, summed over the primary and replica pools.
+     */
+    public int getThreadsAwaitingConnection() {
+        var waiting = 0;
+
+        for (var pool : this.pools) {
+            // null until the pool opens its first connection
+            var bean = pool.getHikariPoolMXBean();
+
+            if (bean != null) {
+                waiting += bean.getThreadsAwaitingConnection();
+            }
+        }
+
+        return waiting;
+    }
+
+    public void setHealthy(String replica, boolean value) {
+        this.healthy.put(replica, value);
+    }
+
+    public boolean isHealthy(String replica) {
+        return this.healthy.getOrDefault(replica, false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var size = PrimaryReads.isActive() ? 0 : this.replicas.size();
+
+        for (int i = 0; i < size; i++) {
+            var replica = this.replicas.get(Math.floorMod(this.next.getAndIncrement(), size));
+
+            if (isHealthy(replica)) {
+                this.routed.get(replica).increment();
+                return replica;
+            }
+        }
+
+        this.routed.get(PRIMARY).increment();
+
+        return PRIMARY;
+    }
+}
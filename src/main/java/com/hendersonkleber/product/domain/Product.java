@@ -6,13 +6,26 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "tb_product")
+@Table(
+        name = "tb_product",
+        uniqueConstraints = {
+                @UniqueConstraint(name = Product.NAME_UNIQUE_CONSTRAINT, columnNames = "name_normalized")
+        },
+        indexes = {
+                @Index(name = "idx_product_name_id", columnList = "name, id"),
+                @Index(name = "idx_product_price_id", columnList = "price, id")
+        }
+)
 public class Product {
+    public static final String NAME_UNIQUE_CONSTRAINT = "uk_product_name_normalized";
+
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_generator")
+    @SequenceGenerator(name = "product_id_generator", sequenceName = "tb_product_seq", allocationSize = 50)
     private Long id;
 
     @CreationTimestamp
@@ -26,15 +39,23 @@ public class Product {
     @Column(name = "name", length = 120)
     private String name;
 
+    @Column(name = "name_normalized", length = 120)
+    private String nameNormalized;
+
     @Column(name = "price", precision = 15, scale = 2)
     private BigDecimal price;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public Product() {
     }
 
     public Product(Long id, String name, BigDecimal price) {
         this.id = id;
         this.name = name;
+        this.nameNormalized = normalizeName(name);
         this.price = price;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -70,6 +91,11 @@ public class Product {
 
     public void setName(String name) {
         this.name = name;
+        this.nameNormalized = normalizeName(name);
+    }
+
+    public String getNameNormalized() {
+        return nameNormalized;
     }
 
     public BigDecimal getPrice() {
@@ -79,4 +105,20 @@ public class Product {
     public void setPrice(BigDecimal price) {
         this.price = price;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Key used for case-insensitive name uniqueness, stored in
+     * {@code name_normalized} so it can be enforced by a plain unique index.
+     */
+    public static String normalizeName(String name) {
+        return name == null ? null : name.strip().toLowerCase(Locale.ROOT);
+    }
 }
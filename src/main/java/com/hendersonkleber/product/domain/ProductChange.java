@@ -0,0 +1,104 @@
+package com.hendersonkleber.product.domain;
+
+import com.hendersonkleber.product.event.ProductEvent;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the same transaction as the product mutation it
+ * describes. {@code txId} is the writing transaction's id, assigned by the
+ * database; feeds are ordered by it rather than by {@code id}, because pooled
+ * ids are handed out ahead of time and don't follow commit order.
+ */
+@Entity
+@Table(
+        name = "tb_product_change",
+        indexes = {
+                @Index(name = "idx_product_change_tx_id_id", columnList = "tx_id, id"),
+                @Index(name = "idx_product_change_created_at", columnList = "created_at")
+        }
+)
+public class ProductChange {
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_change_id_generator")
+    @SequenceGenerator(name = "product_change_id_generator", sequenceName = "tb_product_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(
+            name = "tx_id",
+            insertable = false,
+            updatable = false,
+            columnDefinition = "bigint NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint)"
+    )
+    private Long txId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 10, nullable = false)
+    private ProductEvent.Type type;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "name", length = 120)
+    private String name;
+
+    @Column(name = "price", precision = 15, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "version")
+    private Long version;
+
+    public ProductChange() {
+    }
+
+    public ProductChange(ProductEvent event) {
+        this.type = event.type();
+        this.productId = event.id();
+
+        if (event.product() != null) {
+            this.name = event.product().name();
+            this.price = event.product().price();
+            this.version = event.product().version();
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTxId() {
+        return txId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ProductEvent.Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,6 @@
+package com.hendersonkleber.product.dto;
+
+public record BatchDeleteResponse(
+        long deleted
+) {
+}
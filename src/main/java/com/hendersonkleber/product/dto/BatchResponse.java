@@ -0,0 +1,7 @@
+package com.hendersonkleber.product.dto;
+
+public record BatchResponse(
+        long created,
+        long updated
+) {
+}
@@ -0,0 +1,9 @@
+package com.hendersonkleber.product.dto;
+
+import java.util.List;
+
+public record CursorPaginatedResponse<T>(
+        List<T> content,
+        String nextCursor
+) {
+}
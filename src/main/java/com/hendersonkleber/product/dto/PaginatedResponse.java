@@ -1,10 +1,14 @@
 package com.hendersonkleber.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PaginatedResponse<T>(
         List<T> content,
-        int totalPages,
-        long totalItems
+        Integer totalPages,
+        Long totalItems,
+        boolean hasNext
 ) {
 }
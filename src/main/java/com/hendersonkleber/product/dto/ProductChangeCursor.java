@@ -0,0 +1,48 @@
+package com.hendersonkleber.product.dto;
+
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the change feed: the transaction id and id of the last
+ * change read. Encoded as URL-safe base64 of {@code txId:id}.
+ */
+public record ProductChangeCursor(
+        long txId,
+        long id
+) {
+    public static final ProductChangeCursor START = new ProductChangeCursor(0, 0);
+
+    private static final String SEPARATOR = ":";
+
+    public static ProductChangeCursor of(ProductChange last) {
+        return new ProductChangeCursor(last.getTxId(), last.getId());
+    }
+
+    public static ProductChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = decoded.split(SEPARATOR, 2);
+
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+
+            return new ProductChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        var raw = txId + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package com.hendersonkleber.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.event.ProductEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductChangeResponse(
+        ProductEvent.Type type,
+        Long productId,
+        String name,
+        BigDecimal price,
+        Long version,
+        LocalDateTime changedAt
+) {
+    public static ProductChangeResponse fromEntity(ProductChange entity) {
+        return new ProductChangeResponse(
+                entity.getType(),
+                entity.getProductId(),
+                entity.getName(),
+                entity.getPrice(),
+                entity.getVersion(),
+                entity.getCreatedAt()
+        );
+    }
+}
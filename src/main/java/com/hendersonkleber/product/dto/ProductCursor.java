@@ -0,0 +1,60 @@
+package com.hendersonkleber.product.dto;
+
+import com.hendersonkleber.product.exception.InvalidRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key and id of the last product of a page.
+ * Encoded as URL-safe base64 of {@code sort:order:id:value}.
+ */
+public record ProductCursor(
+        String sort,
+        String order,
+        Long id,
+        String value
+) {
+    private static final String SEPARATOR = ":";
+
+    public static ProductCursor of(String sort, String order, ProductResponse last) {
+        var value = switch (sort) {
+            case "name" -> last.name();
+            case "price" -> last.price().toPlainString();
+            default -> "";
+        };
+
+        return new ProductCursor(sort, order, last.id(), value);
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = decoded.split(SEPARATOR, 4);
+
+            if (parts.length != 4) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+
+            var cursor = new ProductCursor(parts[0], parts[1], Long.valueOf(parts[2]), parts[3]);
+
+            if (cursor.sort().equals("price")) {
+                cursor.priceValue();
+            }
+
+            return cursor;
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        var raw = String.join(SEPARATOR, sort, order, String.valueOf(id), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public BigDecimal priceValue() {
+        return new BigDecimal(value);
+    }
+}
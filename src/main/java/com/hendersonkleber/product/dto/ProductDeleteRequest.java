@@ -0,0 +1,36 @@
+package com.hendersonkleber.product.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the products removed by {@code DELETE /products}: either a list of
+ * ids or a filter where every given criterion must match.
+ */
+public record ProductDeleteRequest(
+        List<@NotNull(message = "Id is required") @Positive(message = "Id must be a positive number") Long> ids,
+
+        @Positive(message = "Minimum price must be a positive value")
+        BigDecimal minPrice,
+
+        @Positive(message = "Maximum price must be a positive value")
+        BigDecimal maxPrice,
+
+        @Size(min = 2, max = 120, message = "Name filter must be between 2 and 120 characters")
+        String nameContains,
+
+        LocalDateTime updatedBefore
+) {
+    public boolean hasIds() {
+        return this.ids != null && !this.ids.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return this.minPrice != null || this.maxPrice != null || this.nameContains != null || this.updatedBefore != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hendersonkleber.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional criteria of the product listings, all of which must match.
+ * {@code nameContains} matches anywhere in the name, ignoring case.
+ */
+public record ProductFilter(
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        String nameContains
+) {
+    public static final ProductFilter NONE = new ProductFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return this.minPrice == null && this.maxPrice == null && this.nameContains == null;
+    }
+}
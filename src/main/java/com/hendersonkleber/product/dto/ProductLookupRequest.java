@@ -0,0 +1,15 @@
+package com.hendersonkleber.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductLookupRequest(
+        @NotEmpty(message = "Ids are required")
+        @Size(max = 10000, message = "Ids must contain at most 10000 items")
+        List<@NotNull(message = "Id is required") @Positive(message = "Id must be a positive number") Long> ids
+) {
+}
@@ -0,0 +1,13 @@
+package com.hendersonkleber.product.dto;
+
+import java.util.List;
+
+/**
+ * Products found for a multi-get, in the order their ids were requested, and
+ * the requested ids that don't exist.
+ */
+public record ProductLookupResponse(
+        List<ProductResponse> content,
+        List<Long> missing
+) {
+}
@@ -3,11 +3,20 @@ package com.hendersonkleber.product.dto;
 import com.hendersonkleber.product.domain.Product;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 public record ProductResponse(
         Long id,
         String name,
-        BigDecimal price
+        BigDecimal price,
+        LocalDateTime updatedAt,
+        Long version
 ) {
     public static ProductResponse fromEntity(Product entity) {
         if (entity == null) return null;
@@ -15,7 +24,74 @@ public record ProductResponse(
         return new ProductResponse(
                 entity.getId(),
                 entity.getName(),
-                entity.getPrice()
+                entity.getPrice(),
+                entity.getUpdatedAt(),
+                entity.getVersion()
         );
     }
+
+    /**
+     * Copy keeping only the given fields, for sparse fieldsets.
+     */
+    public SparseProductResponse withOnly(Set<String> fields) {
+        return new SparseProductResponse(
+                fields.contains("id") ? id : null,
+                fields.contains("name") ? name : null,
+                fields.contains("price") ? price : null,
+                fields.contains("updatedAt") ? updatedAt : null,
+                fields.contains("version") ? version : null
+        );
+    }
+
+    /**
+     * Strong validator for the JSON representation, {@code "<id>-<version>"},
+     * changing whenever the product is modified.
+     */
+    public String etag() {
+        return etag(null);
+    }
+
+    /**
+     * Strong validator for the representation in {@code format}, e.g.
+     * {@code "<id>-<version>-cbor"}; JSON, the default, has no suffix.
+     */
+    public String etag(String format) {
+        var tag = id + "-" + (version == null ? 0 : version);
+        return "\"" + (format == null ? tag : tag + "-" + format) + "\"";
+    }
+
+    /**
+     * Versions of product {@code id} named by the entity tags of an If-Match
+     * header, in any format. Weak and malformed tags, and tags of other
+     * products, are ignored.
+     */
+    public static List<Long> versionsFromETags(Long id, String ifMatch) {
+        var versions = new ArrayList<Long>();
+        var prefix = "\"" + id + "-";
+
+        for (var tag : ifMatch.split(",")) {
+            tag = tag.strip();
+
+            if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+                continue;
+            }
+
+            var rest = tag.substring(prefix.length(), tag.length() - 1);
+            var formatAt = rest.indexOf('-');
+
+            try {
+                versions.add(Long.parseLong(formatAt < 0 ? rest : rest.substring(0, formatAt)));
+            } catch (NumberFormatException ignored) {
+                // not one of our tags
+            }
+        }
+
+        return versions;
+    }
+
+    public Instant lastModified() {
+        if (updatedAt == null) return Instant.EPOCH;
+
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.MILLIS);
+    }
 }
@@ -0,0 +1,24 @@
+package com.hendersonkleber.product.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Catalog-wide price figures. The histogram only lists buckets holding at
+ * least one product; each covers prices from {@code from} inclusive to
+ * {@code to} exclusive.
+ */
+public record ProductStatsResponse(
+        long count,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal averagePrice,
+        List<PriceBucket> histogram
+) {
+    public record PriceBucket(
+            BigDecimal from,
+            BigDecimal to,
+            long count
+    ) {
+    }
+}
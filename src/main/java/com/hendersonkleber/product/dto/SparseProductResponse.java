@@ -0,0 +1,20 @@
+package com.hendersonkleber.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * {@link ProductResponse} trimmed to a sparse fieldset; the fields not
+ * selected are null and left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SparseProductResponse(
+        Long id,
+        String name,
+        BigDecimal price,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
@@ -0,0 +1,31 @@
+package com.hendersonkleber.product.event;
+
+import com.hendersonkleber.product.dto.ProductResponse;
+
+/**
+ * Published after a product is created, updated or deleted. {@code product}
+ * is the state after the change and is null for deletions.
+ */
+public record ProductEvent(
+        Type type,
+        Long id,
+        ProductResponse product
+) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductEvent created(ProductResponse product) {
+        return new ProductEvent(Type.CREATED, product.id(), product);
+    }
+
+    public static ProductEvent updated(ProductResponse product) {
+        return new ProductEvent(Type.UPDATED, product.id(), product);
+    }
+
+    public static ProductEvent deleted(Long id) {
+        return new ProductEvent(Type.DELETED, id, null);
+    }
+}
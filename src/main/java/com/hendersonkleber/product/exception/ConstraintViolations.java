@@ -0,0 +1,31 @@
+package com.hendersonkleber.product.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public final class ConstraintViolations {
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Tells whether the database rejected a write because of the named
+     * constraint, so callers can map it to a domain exception. Drivers that
+     * don't expose the constraint name, such as R2DBC, are matched on the
+     * quoted name in the database message.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException exception, String constraintName) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().equalsIgnoreCase(constraintName)) {
+                return true;
+            }
+
+            if (cause.getMessage() != null && cause.getMessage().contains("\"" + constraintName + "\"")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -1,38 +1,65 @@
 package com.hendersonkleber.product.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @ExceptionHandler(ResourceAlreadyExistsException.class)
     public ResponseEntity<ProblemDetail> handleResourceAlreadyExistsException(ResourceAlreadyExistsException exception, WebRequest request) {
         var status = HttpStatus.CONFLICT;
         var problem = ProblemDetail.forStatus(status);
 
+        countError("handleResourceAlreadyExistsException", status);
+
         problem.setTitle(status.name());
         problem.setDetail(exception.getMessage());
         problem.setProperty("timestamp", Instant.now());
 
-        logger.error(
-                "Exception occurred: {}, Request Details: {}",
-                exception.getMessage(),
-                request.getDescription(false),
-                exception
-        );
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception, WebRequest request) {
+        var status = HttpStatus.CONFLICT;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleOptimisticLockingFailureException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail("Product was modified concurrently, reload it and try again");
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
 
         return ResponseEntity.status(status).body(problem);
     }
@@ -42,25 +69,129 @@ public class GlobalExceptionHandler {
         var status = HttpStatus.NOT_FOUND;
         var problem = ProblemDetail.forStatus(status);
 
+        countError("handleResourceNotFoundException", status);
+
         problem.setTitle(status.name());
         problem.setDetail(exception.getMessage());
         problem.setProperty("timestamp", Instant.now());
 
-        logger.error(
-                "Exception occurred: {}, Request Details: {}",
-                exception.getMessage(),
-                request.getDescription(false),
-                exception
-        );
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<ProblemDetail> handleGoneException(GoneException exception, WebRequest request) {
+        var status = HttpStatus.GONE;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleGoneException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ProblemDetail> handlePreconditionFailedException(PreconditionFailedException exception, WebRequest request) {
+        var status = HttpStatus.PRECONDITION_FAILED;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handlePreconditionFailedException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidRequestException(InvalidRequestException exception, WebRequest request) {
+        var status = HttpStatus.BAD_REQUEST;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleInvalidRequestException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        if (!exception.getErrors().isEmpty()) {
+            problem.setProperty("errors", exception.getErrors());
+        }
+
+        logClientError(exception, request);
 
         return ResponseEntity.status(status).body(problem);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleServiceUnavailableException(ServiceUnavailableException exception, WebRequest request) {
+        var status = HttpStatus.SERVICE_UNAVAILABLE;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleServiceUnavailableException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(problem);
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ProblemDetail> handleConnectionUnavailable(RuntimeException exception, WebRequest request) {
+        if (!isPoolTimeout(exception)) {
+            return handleAllExceptions(exception, request);
+        }
+
+        var status = HttpStatus.SERVICE_UNAVAILABLE;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleConnectionUnavailable", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail("No database connection available, try again later");
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(problem);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ProblemDetail> handleTooManyRequestsException(TooManyRequestsException exception, WebRequest request) {
+        var status = HttpStatus.TOO_MANY_REQUESTS;
+        var problem = ProblemDetail.forStatus(status);
+        var retryAfter = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+
+        countError("handleTooManyRequestsException", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        logClientError(exception, request);
+
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)).body(problem);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ProblemDetail> handleMethodArgumentNotValidException(MethodArgumentNotValidException exception, WebRequest request) {
         var status = HttpStatus.BAD_REQUEST;
         var problem = ProblemDetail.forStatus(status);
 
+        countError("handleMethodArgumentNotValidException", status);
+
         List<String> errors = new ArrayList<>();
 
         for (var error: exception.getBindingResult().getFieldErrors()) {
@@ -76,12 +207,7 @@ public class GlobalExceptionHandler {
         problem.setProperty("timestamp", Instant.now());
         problem.setProperty("errors", errors);
 
-        logger.error(
-                "Exception occurred: {}, Request Details: {}",
-                exception.getMessage(),
-                request.getDescription(false),
-                exception
-        );
+        logClientError(exception, request);
 
         return ResponseEntity.status(status).body(problem);
     }
@@ -91,6 +217,8 @@ public class GlobalExceptionHandler {
         var status = HttpStatus.INTERNAL_SERVER_ERROR;
         var problem = ProblemDetail.forStatus(status);
 
+        countError("handleAllExceptions", status);
+
         problem.setTitle(status.name());
         problem.setDetail(exception.getMessage());
         problem.setProperty("timestamp", Instant.now());
@@ -103,4 +231,29 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(status).body(problem);
     }
+
+    // expected outcomes of bad input or load shedding, a stack trace adds nothing but cost
+    private void logClientError(Exception exception, WebRequest request) {
+        logger.warn("Request failed: {}, Request Details: {}", exception.getMessage(), request.getDescription(false));
+    }
+
+    // Hikari reports a wait longer than connection-timeout as SQLTransientConnectionException
+    private static boolean isPoolTimeout(Throwable exception) {
+        for (var cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void countError(String handler, HttpStatus status) {
+        Counter.builder("product.api.errors")
+                .description("Errors answered by GlobalExceptionHandler")
+                .tag("handler", handler)
+                .tag("status", String.valueOf(status.value()))
+                .register(this.meterRegistry)
+                .increment();
+    }
 }
@@ -0,0 +1,20 @@
+package com.hendersonkleber.product.exception;
+
+import java.util.List;
+
+public class InvalidRequestException extends RuntimeException {
+    private final List<String> errors;
+
+    public InvalidRequestException(String message) {
+        this(message, List.of());
+    }
+
+    public InvalidRequestException(String message, List<String> errors) {
+        super(message);
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hendersonkleber.product.interceptor;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Pattern;
+
+/**
+ * An IP address, or a block of them in CIDR notation such as
+ * {@code 10.0.0.0/8}.
+ */
+record AddressRange(
+        byte[] network,
+        int prefixLength
+) {
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    static AddressRange parse(String value) {
+        var slash = value.indexOf('/');
+        var address = toBytes(slash < 0 ? value.strip() : value.substring(0, slash).strip());
+
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid IP address: " + value);
+        }
+
+        var prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(value.substring(slash + 1).strip());
+
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            throw new IllegalArgumentException("Invalid prefix length: " + value);
+        }
+
+        return new AddressRange(address, prefixLength);
+    }
+
+    boolean contains(String address) {
+        var bytes = toBytes(address);
+
+        if (bytes == null || bytes.length != this.network.length) {
+            return false;
+        }
+
+        for (int bit = 0; bit < this.prefixLength; bit += 8) {
+            var mask = this.prefixLength - bit >= 8 ? 0xff : (0xff << (8 - (this.prefixLength - bit))) & 0xff;
+
+            if ((bytes[bit / 8] & mask) != (this.network[bit / 8] & mask)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // literals only, so a host name never triggers a DNS lookup
+    private static byte[] toBytes(String address) {
+        if (address == null || !(IPV4.matcher(address).matches() || address.indexOf(':') >= 0)) {
+            return null;
+        }
+
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException exception) {
+            return null;
+        }
+    }
+}
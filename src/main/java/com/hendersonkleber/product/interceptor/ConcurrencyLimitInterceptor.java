@@ -0,0 +1,122 @@
+package com.hendersonkleber.product.interceptor;
+
+import com.hendersonkleber.product.config.ConcurrencyLimitProperties;
+import com.hendersonkleber.product.datasource.ReplicaRoutingDataSource;
+import com.hendersonkleber.product.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulkhead in front of the product endpoints, whose limit shrinks while
+ * requests queue for a database connection; requests over it are rejected at
+ * once instead of queueing.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String ACQUIRED_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".acquired";
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final ReplicaRoutingDataSource dataSource;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Limit> limit;
+    private final Counter rejected;
+
+    public ConcurrencyLimitInterceptor(
+            ConcurrencyLimitProperties properties,
+            ReplicaRoutingDataSource dataSource,
+            MeterRegistry meterRegistry
+    ) {
+        this.dataSource = dataSource;
+        this.maxLimit = Math.max(1, properties.maxConcurrentRequests());
+        this.minLimit = Math.clamp(properties.minConcurrentRequests(), 1, this.maxLimit);
+        this.limit = new AtomicReference<>(new Limit(this.maxLimit));
+        this.rejected = Counter.builder("product.requests.shed")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+
+        Gauge.builder("product.concurrency.limit", this, ConcurrencyLimitInterceptor::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("product.concurrency.in.flight", this.inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async dispatches (e.g. streamed exports) keep the slot taken by the original request
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        if (!tryAcquire()) {
+            this.rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent requests, try again later");
+        }
+
+        request.setAttribute(ACQUIRED_ATTRIBUTE, Boolean.TRUE);
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        if (request.getAttribute(ACQUIRED_ATTRIBUTE) == null) {
+            return;
+        }
+
+        request.removeAttribute(ACQUIRED_ATTRIBUTE);
+        this.inFlight.decrementAndGet();
+
+        // service time says nothing about queueing: it also grows with CPU and serialization work
+        var waiting = this.dataSource.getThreadsAwaitingConnection();
+
+        this.limit.updateAndGet(current -> current.next(waiting, this.minLimit, this.maxLimit));
+    }
+
+    public int getLimit() {
+        return (int) this.limit.get().value();
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            var current = this.inFlight.get();
+
+            if (current >= getLimit()) {
+                return false;
+            }
+
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private record Limit(double value) {
+        Limit next(int waiting, int min, int max) {
+            // 1 while no request waits for a connection, shrinking as they queue up
+            var gradient = Math.clamp((this.value - waiting) / this.value, MIN_GRADIENT, 1.0);
+            // the square root gives headroom to probe for more capacity, and tolerates a queue that short
+            var target = this.value * gradient + Math.sqrt(this.value);
+
+            return new Limit(Math.clamp(this.value + (target - this.value) * LIMIT_SMOOTHING, min, max));
+        }
+    }
+}
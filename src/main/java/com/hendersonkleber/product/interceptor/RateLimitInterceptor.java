@@ -0,0 +1,94 @@
+package com.hendersonkleber.product.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hendersonkleber.product.config.RateLimitProperties;
+import com.hendersonkleber.product.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Rejects with 429 the requests of a client that exhausted its token bucket
+ * for the endpoint, so one noisy caller can't take the capacity of the others.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final int MAX_CLIENT_LENGTH = 64;
+
+    private final RateLimitProperties properties;
+    private final Map<String, RateLimitProperties.Bucket> endpoints;
+    private final List<AddressRange> trustedProxies;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejected;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        // map keys may arrive lower-cased from relaxed binding, compare them case-insensitively
+        this.endpoints = properties.endpoints().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(entry -> entry.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+        this.trustedProxies = properties.trustedProxies().stream().map(AddressRange::parse).toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.rejected = Counter.builder("product.requests.shed")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        var endpoint = handler instanceof HandlerMethod method ? method.getMethod().getName() : "other";
+        var now = System.nanoTime();
+        var bucket = this.buckets.get(client(request) + " " + endpoint, key -> newBucket(endpoint, now));
+        var waitNanos = bucket.tryTake(now);
+
+        if (waitNanos > 0) {
+            this.rejected.increment();
+            throw new TooManyRequestsException("Rate limit exceeded, try again later", Duration.ofNanos(waitNanos));
+        }
+
+        return true;
+    }
+
+    // the client header is set by the caller, so it only counts when a trusted proxy sent it
+    private String client(HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return "user:" + request.getUserPrincipal().getName();
+        }
+
+        var address = request.getRemoteAddr();
+        var client = request.getHeader(this.properties.clientHeader());
+
+        if (client == null || client.isBlank() || this.trustedProxies.stream().noneMatch(range -> range.contains(address))) {
+            return "address:" + address;
+        }
+
+        return "client:" + (client.length() > MAX_CLIENT_LENGTH ? client.substring(0, MAX_CLIENT_LENGTH) : client);
+    }
+
+    private TokenBucket newBucket(String endpoint, long now) {
+        var limit = this.endpoints.get(endpoint.toLowerCase(Locale.ROOT));
+
+        return limit != null
+                ? new TokenBucket(limit.capacity(), limit.refillPerSecond(), now)
+                : new TokenBucket(this.properties.capacity(), this.properties.refillPerSecond(), now);
+    }
+}
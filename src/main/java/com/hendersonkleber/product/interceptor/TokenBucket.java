@@ -0,0 +1,43 @@
+package com.hendersonkleber.product.interceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the token count and refill time are swapped
+ * together with compare-and-set, refilling lazily on each attempt.
+ */
+final class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes a token, returning 0, or returns how many nanoseconds until one
+     * is available without taking anything.
+     */
+    long tryTake(long now) {
+        while (true) {
+            var current = this.state.get();
+            var refilledAt = Math.max(now, current.refilledAt());
+            var tokens = Math.min(this.capacity, current.tokens() + (refilledAt - current.refilledAt()) * this.tokensPerNano);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / this.tokensPerNano);
+            }
+
+            if (this.state.compareAndSet(current, new State(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.hendersonkleber.product.repository;
+
+import com.hendersonkleber.product.domain.ProductChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    /**
+     * Changes after the given position, limited to transactions older than
+     * every transaction still running, so a change that commits later can
+     * never sort before one already returned.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM tb_product_change
+            WHERE (tx_id, id) > (:txId, :id)
+              AND tx_id < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY tx_id, id
+            LIMIT :limit
+            """)
+    List<ProductChange> findAfter(long txId, long id, int limit);
+
+    /**
+     * Oldest transaction id still running; every change of an older
+     * transaction is already committed and visible.
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)")
+    long findOldestRunningTxId();
+
+    /**
+     * Deletes up to {@code limit} changes created before {@code before},
+     * oldest positions first, and moves the purge mark up to the newest
+     * position deleted.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            WITH expired AS (
+                SELECT tx_id, id FROM tb_product_change
+                WHERE created_at < :before
+                ORDER BY tx_id, id
+                LIMIT :limit
+            ), purged AS (
+                UPDATE tb_product_change_purge p SET tx_id = newest.tx_id, change_id = newest.id
+                FROM (SELECT tx_id, id FROM expired ORDER BY tx_id DESC, id DESC LIMIT 1) newest
+                WHERE p.id = 1 AND (newest.tx_id, newest.id) > (p.tx_id, p.change_id)
+            )
+            DELETE FROM tb_product_change WHERE id IN (SELECT id FROM expired)
+            """)
+    int deleteExpired(LocalDateTime before, int limit);
+
+    /**
+     * Whether changes after the given position were deleted by the retention
+     * cleanup.
+     */
+    @Query(nativeQuery = true, value = "SELECT EXISTS (SELECT 1 FROM tb_product_change_purge WHERE (tx_id, change_id) > (:txId, :id))")
+    boolean isPurgedAfter(long txId, long id);
+}
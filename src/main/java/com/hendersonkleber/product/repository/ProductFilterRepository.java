@@ -0,0 +1,21 @@
+package com.hendersonkleber.product.repository;
+
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Listing reads with optional filters. The criteria are combined at runtime,
+ * so these queries are built with the Criteria API instead of one static
+ * query per combination.
+ */
+public interface ProductFilterRepository {
+    List<ProductResponse> findFiltered(ProductFilter filter, Sort sort, long offset, int limit);
+
+    List<ProductResponse> seekFiltered(ProductFilter filter, ProductCursor after, Sort.Direction direction, int limit);
+
+    long countFiltered(ProductFilter filter);
+}
@@ -0,0 +1,147 @@
+package com.hendersonkleber.product.repository;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Transactional(readOnly = true)
+class ProductFilterRepositoryImpl implements ProductFilterRepository {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    ProductFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductResponse> findFiltered(ProductFilter filter, Sort sort, long offset, int limit) {
+        var builder = this.entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(ProductResponse.class);
+        var product = query.from(Product.class);
+
+        query.select(response(builder, product))
+                .where(filters(builder, product, filter).toArray(Predicate[]::new))
+                .orderBy(orders(builder, product, sort));
+
+        return this.entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<ProductResponse> seekFiltered(ProductFilter filter, ProductCursor after, Sort.Direction direction, int limit) {
+        var builder = this.entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(ProductResponse.class);
+        var product = query.from(Product.class);
+        var predicates = filters(builder, product, filter);
+        var sort = after == null || after.sort().equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, after.sort()).and(Sort.by(direction, "id"));
+
+        if (after != null) {
+            predicates.add(after(builder, product, after, direction.isAscending()));
+        }
+
+        query.select(response(builder, product))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orders(builder, product, sort));
+
+        return this.entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countFiltered(ProductFilter filter) {
+        var builder = this.entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(Long.class);
+        var product = query.from(Product.class);
+
+        query.select(builder.count(product))
+                .where(filters(builder, product, filter).toArray(Predicate[]::new));
+
+        return this.entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static CompoundSelection<ProductResponse> response(CriteriaBuilder builder, Root<Product> product) {
+        return builder.construct(
+                ProductResponse.class,
+                product.get("id"),
+                product.get("name"),
+                product.get("price"),
+                product.get("updatedAt"),
+                product.get("version")
+        );
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder builder, Root<Product> product, ProductFilter filter) {
+        var predicates = new ArrayList<Predicate>();
+
+        if (filter.minPrice() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(product.get("price"), filter.minPrice()));
+        }
+
+        if (filter.maxPrice() != null) {
+            predicates.add(builder.lessThanOrEqualTo(product.get("price"), filter.maxPrice()));
+        }
+
+        if (filter.nameContains() != null) {
+            // served by the trigram index on name_normalized
+            var pattern = "%" + escapeLike(Product.normalizeName(filter.nameContains())) + "%";
+            predicates.add(builder.like(product.get("nameNormalized"), pattern, LIKE_ESCAPE));
+        }
+
+        return predicates;
+    }
+
+    // same keyset condition as the seekBy* queries of ProductRepository
+    private static Predicate after(CriteriaBuilder builder, Root<Product> product, ProductCursor cursor, boolean ascending) {
+        var id = product.<Long>get("id");
+        var afterId = ascending ? builder.greaterThan(id, cursor.id()) : builder.lessThan(id, cursor.id());
+
+        return switch (cursor.sort()) {
+            case "name" -> {
+                var name = product.<String>get("name");
+                yield builder.or(
+                        ascending ? builder.greaterThan(name, cursor.value()) : builder.lessThan(name, cursor.value()),
+                        builder.and(builder.equal(name, cursor.value()), afterId)
+                );
+            }
+            case "price" -> {
+                var price = product.<BigDecimal>get("price");
+                yield builder.or(
+                        ascending ? builder.greaterThan(price, cursor.priceValue()) : builder.lessThan(price, cursor.priceValue()),
+                        builder.and(builder.equal(price, cursor.priceValue()), afterId)
+                );
+            }
+            default -> afterId;
+        };
+    }
+
+    private static List<Order> orders(CriteriaBuilder builder, Root<Product> product, Sort sort) {
+        return sort.stream()
+                .map(order -> order.isAscending()
+                        ? builder.asc(product.get(order.getProperty()))
+                        : builder.desc(product.get(order.getProperty())))
+                .toList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,12 +1,155 @@
 package com.hendersonkleber.product.repository;
 
 import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    boolean existsByName(String name);
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-    @Query("SELECT COUNT(p) > 0 FROM Product p WHERE UPPER(p.name) = UPPER(:name) AND p.id <> :id")
-    boolean existsByName(String name, Long id);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFilterRepository {
+    List<Product> findByNameNormalizedIn(Collection<String> namesNormalized);
+
+    /**
+     * Selects straight into {@link ProductResponse}, so list and detail reads
+     * skip entity hydration, persistence context snapshots and dirty checking.
+     * These reads declare their own read-only transaction, which is what routes
+     * them to a replica when one is configured.
+     */
+    String SELECT_RESPONSE = """
+            SELECT new com.hendersonkleber.product.dto.ProductResponse(p.id, p.name, p.price, p.updatedAt, p.version)
+            FROM Product p
+            """;
+
+    @Query(SELECT_RESPONSE + "WHERE p.id = :id")
+    @Transactional(readOnly = true)
+    Optional<ProductResponse> findResponseById(Long id);
+
+    @Query(SELECT_RESPONSE + "WHERE p.id IN :ids")
+    @Transactional(readOnly = true)
+    List<ProductResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT count(p) FROM Product p")
+    @Transactional(readOnly = true)
+    Page<ProductResponse> findPage(Pageable pageable);
+
+    @Query(SELECT_RESPONSE)
+    @Transactional(readOnly = true)
+    Slice<ProductResponse> findSlice(Pageable pageable);
+
+    @Query(SELECT_RESPONSE)
+    @Transactional(readOnly = true)
+    List<ProductResponse> findFirst(Sort sort, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE p.id > :id ORDER BY p.id ASC")
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByIdAsc(Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE p.id < :id ORDER BY p.id DESC")
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByIdDesc(Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + """
+            WHERE p.name >= :name AND (p.name > :name OR p.id > :id)
+            ORDER BY p.name ASC, p.id ASC
+            """)
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByNameAsc(String name, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + """
+            WHERE p.name <= :name AND (p.name < :name OR p.id < :id)
+            ORDER BY p.name DESC, p.id DESC
+            """)
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByNameDesc(String name, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + """
+            WHERE p.price >= :price AND (p.price > :price OR p.id > :id)
+            ORDER BY p.price ASC, p.id ASC
+            """)
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByPriceAsc(BigDecimal price, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + """
+            WHERE p.price <= :price AND (p.price < :price OR p.id < :id)
+            ORDER BY p.price DESC, p.id DESC
+            """)
+    @Transactional(readOnly = true)
+    List<ProductResponse> seekByPriceDesc(BigDecimal price, Long id, Limit limit);
+
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAll();
+
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product
+            SET name = :name, name_normalized = :nameNormalized, price = :price,
+                version = COALESCE(version, 0) + 1, updated_at = LOCALTIMESTAMP
+            WHERE id = :id
+            RETURNING *
+            """)
+    Optional<Product> updateById(Long id, String name, String nameNormalized, BigDecimal price);
+
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product
+            SET name = :name, name_normalized = :nameNormalized, price = :price,
+                version = version + 1, updated_at = LOCALTIMESTAMP
+            WHERE id = :id AND version IN (:versions)
+            RETURNING *
+            """)
+    Optional<Product> updateByIdAndVersion(Long id, Collection<Long> versions, String name, String nameNormalized, BigDecimal price);
+
+    /**
+     * Deletes without loading the entity first, unlike {@code deleteById};
+     * returns the number of rows removed.
+     */
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteDirectlyById(Long id);
+
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product
+            WHERE id IN (:ids)
+            RETURNING id
+            """)
+    List<Long> deleteAllByIdReturningIds(Collection<Long> ids);
+
+    /**
+     * Deletes up to {@code limit} products matching every non-null criterion,
+     * in id order so concurrent clean-ups lock rows in the same order.
+     * {@code nameContains} is a LIKE pattern fragment over the normalized name
+     * and must already be escaped.
+     */
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product
+            WHERE id IN (
+                SELECT id FROM tb_product
+                WHERE (CAST(:minPrice AS numeric) IS NULL OR price >= CAST(:minPrice AS numeric))
+                  AND (CAST(:maxPrice AS numeric) IS NULL OR price <= CAST(:maxPrice AS numeric))
+                  AND (CAST(:nameContains AS text) IS NULL OR name_normalized LIKE '%' || CAST(:nameContains AS text) || '%')
+                  AND (CAST(:updatedBefore AS timestamp) IS NULL OR updated_at < CAST(:updatedBefore AS timestamp))
+                ORDER BY id
+                LIMIT :limit
+            )
+            RETURNING id
+            """)
+    List<Long> deleteMatchingReturningIds(BigDecimal minPrice, BigDecimal maxPrice, String nameContains, LocalDateTime updatedBefore, int limit);
 }
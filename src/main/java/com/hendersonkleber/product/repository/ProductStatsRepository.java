@@ -0,0 +1,64 @@
+package com.hendersonkleber.product.repository;
+
+import com.hendersonkleber.product.domain.Product;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reads the price deltas that triggers on {@code tb_product} append to
+ * {@code tb_product_price_delta} (see the V3 migration).
+ */
+public interface ProductStatsRepository extends Repository<Product, Long> {
+    interface PriceBucketTotal {
+        Integer getBucket();
+
+        long getProductCount();
+
+        BigDecimal getPriceSum();
+    }
+
+    interface PriceRange {
+        BigDecimal getMinPrice();
+
+        BigDecimal getMaxPrice();
+    }
+
+    @Query(nativeQuery = true, value = """
+            SELECT bucket, CAST(sum(product_count) AS bigint) AS "productCount", sum(price_sum) AS "priceSum"
+            FROM tb_product_price_delta
+            GROUP BY bucket
+            HAVING sum(product_count) <> 0
+            ORDER BY bucket
+            """)
+    @Transactional(readOnly = true)
+    List<PriceBucketTotal> sumPriceBuckets();
+
+    // planned as two lookups on the (price, id) index, not a scan
+    @Query(nativeQuery = true, value = "SELECT min(price) AS \"minPrice\", max(price) AS \"maxPrice\" FROM tb_product")
+    @Transactional(readOnly = true)
+    PriceRange findPriceRange();
+
+    /**
+     * Folds all deltas into one row per bucket. Deltas appended while this
+     * runs are outside its snapshot and stay for the next run.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            WITH compacted AS (
+                DELETE FROM tb_product_price_delta
+                RETURNING bucket, product_count, price_sum
+            )
+            INSERT INTO tb_product_price_delta (bucket, product_count, price_sum)
+            SELECT bucket, sum(product_count), sum(price_sum)
+            FROM compacted
+            GROUP BY bucket
+            HAVING sum(product_count) <> 0
+            """)
+    @Transactional
+    int compactPriceDeltas();
+}
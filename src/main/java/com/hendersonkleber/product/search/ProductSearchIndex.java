@@ -0,0 +1,234 @@
+package com.hendersonkleber.product.search;
+
+import com.hendersonkleber.product.dto.ProductResponse;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory name index supporting prefix lookups (sorted map of normalized
+ * names) and fuzzy lookups (trigram postings ranked by Jaccard similarity).
+ * Names are compared lower-cased and without accents.
+ */
+public class ProductSearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::similarity).reversed()
+            .thenComparingLong(Match::id);
+
+    private final double minSimilarity;
+    private final Map<Long, ProductResponse> products = new HashMap<>();
+    private final NavigableMap<String, Long> names = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final Map<Long, Integer> trigramCounts = new HashMap<>();
+    private final Map<Long, Long> removed = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long removals;
+
+    public ProductSearchIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Adds or replaces a product. A product older than the one held, by
+     * version, or one removed already is ignored, so a late re-read can't
+     * undo a newer change.
+     */
+    public void put(ProductResponse product) {
+        this.lock.writeLock().lock();
+
+        try {
+            var previous = this.products.get(product.id());
+
+            if (this.removed.containsKey(product.id())
+                    || previous != null && previous.version() != null && product.version() != null && product.version() < previous.version()) {
+                return;
+            }
+
+            removeUnlocked(product.id());
+
+            var normalized = normalize(product.name());
+            var productTrigrams = trigrams(normalized);
+
+            this.products.put(product.id(), product);
+            this.names.put(normalized + KEY_SEPARATOR + product.id(), product.id());
+            this.trigramCounts.put(product.id(), productTrigrams.size());
+
+            for (var trigram : productTrigrams) {
+                this.trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(product.id());
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        this.lock.writeLock().lock();
+
+        try {
+            removeUnlocked(id);
+            // ids are never reused, so the id alone keeps the product from coming back
+            this.removed.put(id, ++this.removals);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sequence number of the latest removal. Taken before products are
+     * re-read, it marks the removals those reads can no longer undo.
+     */
+    public long removals() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.removals;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public void forgetRemovals(long upTo) {
+        this.lock.writeLock().lock();
+
+        try {
+            this.removed.values().removeIf(sequence -> sequence <= upTo);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+
+        try {
+            this.products.clear();
+            this.names.clear();
+            this.trigrams.clear();
+            this.trigramCounts.clear();
+            this.removed.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.products.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns names starting with {@code query} in alphabetical order, then
+     * fills up to {@code limit} with the most similar names.
+     */
+    public List<ProductResponse> search(String query, int limit) {
+        var normalized = normalize(query);
+
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        this.lock.readLock().lock();
+
+        try {
+            var results = new LinkedHashMap<Long, ProductResponse>();
+
+            for (var id : this.names.subMap(normalized, true, normalized + Character.MAX_VALUE, true).values()) {
+                if (results.size() == limit) {
+                    return List.copyOf(results.values());
+                }
+
+                results.put(id, this.products.get(id));
+            }
+
+            if (results.size() < limit) {
+                for (var id : fuzzy(normalized, results.keySet(), limit - results.size())) {
+                    results.put(id, this.products.get(id));
+                }
+            }
+
+            return List.copyOf(results.values());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // the most similar names not in exclude, keeping only the best limit candidates seen so far
+    private List<Long> fuzzy(String normalized, Set<Long> exclude, int limit) {
+        var queryTrigrams = trigrams(normalized);
+        var shared = new HashMap<Long, Integer>();
+
+        for (var trigram : queryTrigrams) {
+            for (var id : this.trigrams.getOrDefault(trigram, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+
+        // the worst kept match sits on top, ready to be dropped for a better one
+        var best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+
+        shared.forEach((id, count) -> {
+            var similarity = (double) count / (queryTrigrams.size() + this.trigramCounts.get(id) - count);
+
+            if (similarity < this.minSimilarity || exclude.contains(id)) {
+                return;
+            }
+
+            best.offer(new Match(id, similarity));
+
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+
+        return best.stream().sorted(BEST_FIRST).map(Match::id).toList();
+    }
+
+    private void removeUnlocked(Long id) {
+        var previous = this.products.remove(id);
+
+        if (previous == null) {
+            return;
+        }
+
+        this.trigramCounts.remove(id);
+
+        var normalized = normalize(previous.name());
+
+        this.names.remove(normalized + KEY_SEPARATOR + id);
+
+        for (var trigram : trigrams(normalized)) {
+            var ids = this.trigrams.get(trigram);
+
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                this.trigrams.remove(trigram);
+            }
+        }
+    }
+
+    private record Match(long id, double similarity) {
+    }
+
+    static String normalize(String value) {
+        var decomposed = Normalizer.normalize(value.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigrams(String normalized) {
+        var padded = "  " + normalized + " ";
+        var result = new HashSet<String>();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,314 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.config.ProductBatchProperties;
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.BatchDeleteResponse;
+import com.hendersonkleber.product.dto.BatchResponse;
+import com.hendersonkleber.product.dto.ProductDeleteRequest;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.ConstraintViolations;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import com.hendersonkleber.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductBatchService {
+    private final Logger logger = LoggerFactory.getLogger(ProductBatchService.class);
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long maxImportSize;
+
+    public ProductBatchService(
+            ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher,
+            EntityManager entityManager,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ProductBatchProperties properties
+    ) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = properties.chunkSize();
+        this.maxImportSize = properties.maxImportSize().toBytes();
+    }
+
+    /**
+     * Saves a batch sent as a single JSON array, limited to one chunk so name
+     * uniqueness is checked with a single query.
+     */
+    @Transactional
+    public BatchResponse save(List<ProductRequest> requests) {
+        if (requests.size() > this.chunkSize) {
+            throw new InvalidRequestException("Batch must contain at most " + this.chunkSize + " products, use NDJSON for larger imports");
+        }
+
+        return save(requests.iterator());
+    }
+
+    /**
+     * Saves a batch sent as NDJSON. The body is copied to a temporary file
+     * first, so the transaction never waits on the client's upload.
+     */
+    public BatchResponse save(InputStream body) throws IOException {
+        var spool = Files.createTempFile("product-import-", ".ndjson");
+
+        try {
+            copy(body, spool);
+
+            try (var lines = this.objectMapper.readerFor(ProductRequest.class).<ProductRequest>readValues(spool.toFile())) {
+                return this.transactionTemplate.execute(status -> save(lines));
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void copy(InputStream body, Path target) throws IOException {
+        try (var output = Files.newOutputStream(target)) {
+            var buffer = new byte[8192];
+            long copied = 0;
+            int read;
+
+            while ((read = body.read(buffer)) != -1) {
+                copied += read;
+
+                if (copied > this.maxImportSize) {
+                    throw new InvalidRequestException("Import must be at most " + this.maxImportSize + " bytes, split it into smaller requests");
+                }
+
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Creates products without id and updates products with id, in chunks of
+     * {@code product.batch.chunk-size}. Each chunk is validated, checked for
+     * name conflicts with one query and flushed as JDBC batches; any failure
+     * rolls back the whole batch.
+     */
+    @Transactional
+    public BatchResponse save(Iterator<ProductRequest> requests) {
+        var seenNames = new HashSet<String>();
+        var seenIds = new HashSet<Long>();
+        var chunk = new ArrayList<ProductRequest>(this.chunkSize);
+        long offset = 0;
+        long created = 0;
+        long updated = 0;
+
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+
+            if (chunk.size() == this.chunkSize || !requests.hasNext()) {
+                var result = saveChunk(chunk, offset, seenNames, seenIds);
+
+                created += result.created();
+                updated += result.updated();
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (offset == 0) {
+            throw new InvalidRequestException("Batch must contain at least one product");
+        }
+
+        this.logger.info("Saved product batch with {} created and {} updated", created, updated);
+
+        return new BatchResponse(created, updated);
+    }
+
+    /**
+     * Deletes the products selected by ids or by filter, one committed
+     * transaction per chunk so a large clean-up holds no long locks.
+     */
+    public BatchDeleteResponse delete(ProductDeleteRequest request) {
+        if (request.hasIds() == request.hasFilter()) {
+            throw new InvalidRequestException("Either ids or a filter must be given, not both");
+        }
+
+        if (request.minPrice() != null && request.maxPrice() != null && request.minPrice().compareTo(request.maxPrice()) > 0) {
+            throw new InvalidRequestException("Minimum price must not be greater than maximum price");
+        }
+
+        var deleted = request.hasIds() ? deleteByIds(request.ids()) : deleteMatching(request);
+
+        this.logger.info("Deleted {} products in bulk", deleted);
+
+        return new BatchDeleteResponse(deleted);
+    }
+
+    private long deleteByIds(List<Long> ids) {
+        var distinct = List.copyOf(new LinkedHashSet<>(ids));
+        long deleted = 0;
+
+        for (int from = 0; from < distinct.size(); from += this.chunkSize) {
+            var chunk = distinct.subList(from, Math.min(from + this.chunkSize, distinct.size()));
+
+            deleted += deleteChunk(() -> this.productRepository.deleteAllByIdReturningIds(chunk));
+        }
+
+        return deleted;
+    }
+
+    private long deleteMatching(ProductDeleteRequest request) {
+        var nameContains = request.nameContains() == null ? null : escapeLike(Product.normalizeName(request.nameContains()));
+        long deleted = 0;
+        int chunk;
+
+        // rows changed by concurrent writers can drop out of a chunk, so only an empty chunk ends the loop
+        do {
+            chunk = deleteChunk(() -> this.productRepository.deleteMatchingReturningIds(
+                    request.minPrice(),
+                    request.maxPrice(),
+                    nameContains,
+                    request.updatedBefore(),
+                    this.chunkSize
+            ));
+            deleted += chunk;
+        } while (chunk > 0);
+
+        return deleted;
+    }
+
+    private int deleteChunk(Supplier<List<Long>> statement) {
+        var ids = this.transactionTemplate.execute(status -> {
+            var deleted = statement.get();
+
+            // published inside the chunk transaction so the change feed records them with it
+            deleted.forEach(id -> this.eventPublisher.publishEvent(ProductEvent.deleted(id)));
+
+            return deleted;
+        });
+
+        return ids == null ? 0 : ids.size();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private BatchResponse saveChunk(List<ProductRequest> chunk, long offset, Set<String> seenNames, Set<Long> seenIds) {
+        validate(chunk, offset, seenNames, seenIds);
+
+        var updates = chunk.stream()
+                .filter(request -> request.id() != null && request.id() > 0)
+                .collect(Collectors.toMap(ProductRequest::id, Function.identity()));
+
+        var names = chunk.stream().map(request -> Product.normalizeName(request.name())).toList();
+        var conflicts = this.productRepository.findByNameNormalizedIn(names).stream()
+                .filter(existing -> !updates.containsKey(existing.getId()))
+                .map(Product::getName)
+                .toList();
+
+        if (!conflicts.isEmpty()) {
+            throw new ResourceAlreadyExistsException("Products with these names already exist: " + conflicts);
+        }
+
+        var updated = new ArrayList<Product>(updates.size());
+
+        if (!updates.isEmpty()) {
+            var existing = this.productRepository.findAllById(updates.keySet());
+
+            if (existing.size() != updates.size()) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+
+            for (var entity : existing) {
+                var request = updates.get(entity.getId());
+
+                entity.setName(request.name());
+                entity.setPrice(request.price());
+                updated.add(entity);
+            }
+        }
+
+        var created = chunk.stream()
+                .filter(request -> request.id() == null || request.id() <= 0)
+                .map(ProductRequest::toEntity)
+                .toList();
+
+        try {
+            this.productRepository.saveAll(created);
+            this.productRepository.flush();
+        } catch (DataIntegrityViolationException exception) {
+            // a concurrent writer took one of the names after the pre-check
+            if (ConstraintViolations.isViolationOf(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+                throw new ResourceAlreadyExistsException("Product with this name already exists");
+            }
+
+            throw exception;
+        }
+
+        this.entityManager.clear();
+
+        // listeners run after commit, so a rolled back batch leaves caches and indexes untouched
+        created.forEach(entity -> this.eventPublisher.publishEvent(ProductEvent.created(ProductResponse.fromEntity(entity))));
+        updated.forEach(entity -> this.eventPublisher.publishEvent(ProductEvent.updated(ProductResponse.fromEntity(entity))));
+
+        return new BatchResponse(chunk.size() - updates.size(), updates.size());
+    }
+
+    private void validate(List<ProductRequest> chunk, long offset, Set<String> seenNames, Set<Long> seenIds) {
+        List<String> errors = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            var request = chunk.get(i);
+            var index = offset + i;
+
+            if (request == null) {
+                errors.add("[" + index + "]: Product is required");
+                continue;
+            }
+
+            for (var violation : this.validator.validate(request)) {
+                errors.add("[" + index + "] " + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+
+            if (request.name() != null && !seenNames.add(Product.normalizeName(request.name()))) {
+                errors.add("[" + index + "] name: Name appears more than once in the batch");
+            }
+
+            if (request.id() != null && request.id() > 0 && !seenIds.add(request.id())) {
+                errors.add("[" + index + "] id: Product id appears more than once in the batch");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException("Invalid batch", errors);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.catalog.ProductCatalog;
+import com.hendersonkleber.product.catalog.ProductCatalogSnapshot;
+import com.hendersonkleber.product.change.ProductChangeFollower;
+import com.hendersonkleber.product.config.ProductCatalogProperties;
+import com.hendersonkleber.product.config.ProductChangeProperties;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Serves unfiltered listings and reads by id from a {@link ProductCatalog}
+ * kept current from the change feed.
+ */
+@Service
+public class ProductCatalogService {
+    private final Logger logger = LoggerFactory.getLogger(ProductCatalogService.class);
+    private final ProductRepository productRepository;
+    private final ProductChangeFollower changeFollower;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final int refreshBatchSize;
+    private final Duration changeRetention;
+    private volatile ProductCatalog catalog;
+    private volatile ProductChangeCursor position;
+
+    public ProductCatalogService(
+            ProductRepository productRepository,
+            ProductChangeFollower changeFollower,
+            ProductCatalogProperties properties,
+            ProductChangeProperties changeProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productRepository = productRepository;
+        this.changeFollower = changeFollower;
+        this.enabled = properties.enabled();
+        this.snapshotPath = properties.snapshotPath() == null || properties.snapshotPath().isBlank() ? null : Path.of(properties.snapshotPath());
+        this.refreshBatchSize = properties.refreshBatchSize();
+        this.changeRetention = changeProperties.retention();
+
+        Gauge.builder("product.catalog.size", this, service -> service.catalog == null ? 0 : service.catalog.size())
+                .description("Products held by the in-memory catalog")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!this.enabled) {
+            return;
+        }
+
+        var snapshot = readSnapshot();
+
+        if (snapshot.isPresent()) {
+            this.position = snapshot.get().position();
+            this.catalog = snapshot.get().catalog();
+        } else {
+            this.catalog = loadFromDatabase();
+        }
+
+        refresh();
+
+        this.logger.info("Product catalog ready with {} products", this.catalog.size());
+    }
+
+    /**
+     * Applies the changes committed through any node since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval:1s}")
+    public synchronized void refresh() {
+        var current = this.catalog;
+
+        if (current == null) {
+            return;
+        }
+
+        var removals = current.removals();
+
+        this.position = this.changeFollower.follow(this.position, this.refreshBatchSize, current::put, current::remove);
+        current.forgetRemovals(removals);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductEvent(ProductEvent event) {
+        var current = this.catalog;
+
+        if (current == null) {
+            return;
+        }
+
+        if (event.type() == ProductEvent.Type.DELETED) {
+            current.remove(event.id());
+        } else {
+            current.put(event.product());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot-interval:5m}")
+    public synchronized void writeSnapshot() {
+        var current = this.catalog;
+
+        if (current == null || this.snapshotPath == null) {
+            return;
+        }
+
+        // taken before the catalog is encoded, so replaying from it never misses a change the snapshot lacks
+        var at = this.position;
+
+        try {
+            ProductCatalogSnapshot.write(current, at, this.snapshotPath);
+            this.logger.debug("Product catalog snapshot written to {}", this.snapshotPath);
+        } catch (IOException exception) {
+            this.logger.warn("Could not write product catalog snapshot to {}: {}", this.snapshotPath, exception.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * A page of the unfiltered listing, or empty while the catalog is not
+     * loaded or for a sort it doesn't hold, so the caller falls back to the
+     * database.
+     */
+    public Optional<PaginatedResponse<ProductResponse>> getPage(int page, int limit, String sort, String order, boolean includeTotal) {
+        var current = this.catalog;
+
+        if (current == null || !ProductCatalog.supports(sort)) {
+            return Optional.empty();
+        }
+
+        var offset = (long) page * limit;
+        var total = current.size();
+        var content = current.page(sort, order.equalsIgnoreCase("asc"), offset, limit);
+        var hasNext = offset + limit < total;
+
+        if (!includeTotal) {
+            return Optional.of(new PaginatedResponse<>(content, null, null, hasNext));
+        }
+
+        var totalPages = (total + limit - 1) / limit;
+
+        return Optional.of(new PaginatedResponse<>(content, totalPages, (long) total, hasNext));
+    }
+
+    /**
+     * The product with this id, or empty when the catalog is not loaded or
+     * doesn't hold it yet, e.g. created through another node since the last
+     * refresh; callers then read the database.
+     */
+    public Optional<ProductResponse> get(Long id) {
+        var current = this.catalog;
+        return current == null ? Optional.empty() : current.get(id);
+    }
+
+    private Optional<ProductCatalogSnapshot> readSnapshot() {
+        if (this.snapshotPath == null || !Files.exists(this.snapshotPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            var snapshot = ProductCatalogSnapshot.read(this.snapshotPath);
+
+            // the changes it would need to replay may already be deleted from the feed
+            if (snapshot.writtenAt().isBefore(Instant.now().minus(this.changeRetention))) {
+                this.logger.info("Product catalog snapshot written at {} is older than the change feed retention, ignoring it", snapshot.writtenAt());
+                return Optional.empty();
+            }
+
+            this.logger.info("Loaded product catalog snapshot written at {} with {} products", snapshot.writtenAt(), snapshot.catalog().size());
+
+            return Optional.of(snapshot);
+        } catch (IOException exception) {
+            this.logger.warn("Could not read product catalog snapshot from {}: {}", this.snapshotPath, exception.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private ProductCatalog loadFromDatabase() {
+        this.logger.info("Loading product catalog from the database");
+
+        return this.changeFollower.read(() -> {
+            this.position = this.changeFollower.startPosition();
+
+            try (var products = this.productRepository.streamAll()) {
+                return ProductCatalog.of(products.map(ProductResponse::fromEntity).iterator());
+            }
+        });
+    }
+}
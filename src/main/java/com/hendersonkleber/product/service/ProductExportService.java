@@ -0,0 +1,85 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class ProductExportService {
+    private final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(
+            ProductRepository productRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper
+    ) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the whole catalog ordered by id, reading it through a forward-only
+     * cursor and detaching every entity once written so memory stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void export(String format, OutputStream output) throws IOException {
+        this.logger.info("Exporting products as {}", format);
+
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        var csv = format.equals("csv");
+
+        if (csv) {
+            writer.write("id,name,price\n");
+        }
+
+        try (var products = this.productRepository.streamAll()) {
+            products.forEach(entity -> {
+                var product = ProductResponse.fromEntity(entity);
+
+                try {
+                    writer.write(csv ? toCsv(product) : this.objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+
+                this.entityManager.detach(entity);
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * One CSV line without the line break, in the column order of the header.
+     */
+    public static String toCsv(ProductResponse product) {
+        return product.id() + "," + escapeCsv(product.name()) + "," + product.price().toPlainString();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.change.ProductChangeFollower;
+import com.hendersonkleber.product.config.ProductSearchProperties;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.ServiceUnavailableException;
+import com.hendersonkleber.product.repository.ProductRepository;
+import com.hendersonkleber.product.search.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+public class ProductSearchService {
+    private final Logger logger = LoggerFactory.getLogger(ProductSearchService.class);
+    private final ProductRepository productRepository;
+    private final ProductChangeFollower changeFollower;
+    private final ProductSearchIndex index;
+    private final boolean enabled;
+    private final int refreshBatchSize;
+    private final Queue<ProductEvent> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+    private volatile ProductChangeCursor position;
+
+    public ProductSearchService(
+            ProductRepository productRepository,
+            ProductChangeFollower changeFollower,
+            ProductSearchProperties properties
+    ) {
+        this.productRepository = productRepository;
+        this.changeFollower = changeFollower;
+        this.index = new ProductSearchIndex(properties.minSimilarity());
+        this.enabled = properties.enabled();
+        this.refreshBatchSize = properties.refreshBatchSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void buildIndex() {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.logger.info("Building product search index");
+
+        this.position = this.changeFollower.read(() -> {
+            var start = this.changeFollower.startPosition();
+
+            try (var products = this.productRepository.streamAll()) {
+                products.map(ProductResponse::fromEntity).forEach(this.index::put);
+            }
+
+            return start;
+        });
+
+        this.ready = true;
+        applyPending();
+        refresh();
+
+        this.logger.info("Product search index built with {} products", this.index.size());
+    }
+
+    /**
+     * Applies the changes committed through any node since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${product.search.refresh-interval:1s}")
+    public synchronized void refresh() {
+        if (!this.ready) {
+            return;
+        }
+
+        var removals = this.index.removals();
+
+        this.position = this.changeFollower.follow(this.position, this.refreshBatchSize, this.index::put, this.index::remove);
+        this.index.forgetRemovals(removals);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductEvent(ProductEvent event) {
+        if (!this.enabled) {
+            return;
+        }
+
+        if (this.ready) {
+            apply(event);
+            return;
+        }
+
+        // rows streamed by the build may be older than this change, so it waits until the build ends
+        this.pending.add(event);
+
+        if (this.ready) {
+            applyPending();
+        }
+    }
+
+    public List<ProductResponse> search(String query, int limit) {
+        if (!this.enabled || !this.ready) {
+            throw new ServiceUnavailableException("Product search is not available");
+        }
+
+        this.logger.debug("Searching products with query: {}, limit: {}", query, limit);
+
+        return this.index.search(query, limit);
+    }
+
+    private void applyPending() {
+        ProductEvent event;
+
+        while ((event = this.pending.poll()) != null) {
+            apply(event);
+        }
+    }
+
+    private void apply(ProductEvent event) {
+        if (event.type() == ProductEvent.Type.DELETED) {
+            this.index.remove(event.id());
+        } else {
+            this.index.put(event.product());
+        }
+    }
+}
@@ -1,96 +1,396 @@
 package com.hendersonkleber.product.service;
 
+import com.hendersonkleber.product.cache.ProductCache;
+import com.hendersonkleber.product.cache.ProductCountCache;
+import com.hendersonkleber.product.cache.SingleFlight;
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
 import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductLookupResponse;
 import com.hendersonkleber.product.dto.ProductRequest;
 import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.ConstraintViolations;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.PreconditionFailedException;
 import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
 import com.hendersonkleber.product.exception.ResourceNotFoundException;
 import com.hendersonkleber.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ProductService {
+    // keeps each IN list far below the bind parameter limit of the driver
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(ProductService.class);
     private final ProductRepository productRepository;
+    private final ProductCountCache productCountCache;
+    private final ProductCache productCache;
+    private final ProductCatalogService productCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Long, Optional<ProductResponse>> byIdReads;
+    private final SingleFlight<PageKey, PaginatedResponse<ProductResponse>> pageReads;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(
+            ProductRepository productRepository,
+            ProductCountCache productCountCache,
+            ProductCache productCache,
+            ProductCatalogService productCatalog,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
         this.productRepository = productRepository;
+        this.productCountCache = productCountCache;
+        this.productCache = productCache;
+        this.productCatalog = productCatalog;
+        this.eventPublisher = eventPublisher;
+        this.byIdReads = new SingleFlight<>("getById", meterRegistry);
+        this.pageReads = new SingleFlight<>("getAll", meterRegistry);
     }
 
+    /**
+     * Lists a page of products. Concurrent identical requests share one query;
+     * reads are not transactional here so that waiting requests don't hold a
+     * connection, the repository runs each query in a read-only transaction.
+     * Unfiltered pages by id or price come from the in-memory catalog once it
+     * is loaded.
+     */
     public PaginatedResponse<ProductResponse> getAll(
             int page,
             int limit,
             String sort,
-            String order
+            String order,
+            boolean includeTotal,
+            ProductFilter filter
     ) {
-        var pageRequest = PageRequest.of(
-                page,
-                limit,
-                order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC,
-                sort
-        );
+        this.logger.debug("Finding products page: {}, limit: {}, sort: {}, order: {}, filter: {}", page, limit, sort, order, filter);
 
-        this.logger.info("Finding products page: {}, limit: {}, sort: {}, order: {}", page, limit, sort, order);
+        validate(filter);
 
-        var pageResponse = this.productRepository.findAll(pageRequest);
+        if (filter.isEmpty()) {
+            var fromCatalog = this.productCatalog.getPage(page, limit, sort, order, includeTotal);
 
-        return new PaginatedResponse<>(
-                pageResponse.getContent().stream().map(ProductResponse::fromEntity).toList(),
-                pageResponse.getTotalPages(),
-                pageResponse.getTotalElements()
-        );
+            if (fromCatalog.isPresent()) {
+                return fromCatalog.get();
+            }
+        }
+
+        var key = new PageKey(page, limit, sort, order.toLowerCase(Locale.ROOT), includeTotal, filter);
+
+        return this.pageReads.execute(key, () -> filter.isEmpty()
+                ? findPage(page, limit, sort, order, includeTotal)
+                : findFilteredPage(page, limit, sort, order, includeTotal, filter));
+    }
+
+    public CursorPaginatedResponse<ProductResponse> getAllByCursor(
+            String cursor,
+            int limit,
+            String sort,
+            String order,
+            ProductFilter filter
+    ) {
+        validate(filter);
+
+        var direction = order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var position = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+
+        if (position != null && (!position.sort().equals(sort) || !position.order().equalsIgnoreCase(order))) {
+            throw new InvalidRequestException("Cursor does not match the requested sort and order");
+        }
+
+        this.logger.debug("Finding products after cursor: {}, limit: {}, sort: {}, order: {}, filter: {}", cursor, limit, sort, order, filter);
+
+        // one extra row tells whether there is a next page without running a count
+        var fetchLimit = Limit.of(limit + 1);
+        List<ProductResponse> rows;
+
+        if (!filter.isEmpty()) {
+            rows = position == null
+                    ? this.productRepository.findFiltered(filter, keysetSort(sort, direction), 0, limit + 1)
+                    : this.productRepository.seekFiltered(filter, position, direction, limit + 1);
+        } else {
+            rows = position == null
+                    ? this.productRepository.findFirst(keysetSort(sort, direction), fetchLimit)
+                    : seek(position, direction, fetchLimit);
+        }
+
+        var hasNext = rows.size() > limit;
+        var content = hasNext ? rows.subList(0, limit) : rows;
+        var nextCursor = hasNext ? ProductCursor.of(sort, order, content.getLast()).encode() : null;
+
+        return new CursorPaginatedResponse<>(content, nextCursor);
     }
 
     public ProductResponse getById(Long id) {
-        this.logger.info("Finding product by id: {}", id);
+        this.logger.debug("Finding product by id: {}", id);
+
+        var fromCatalog = this.productCatalog.get(id);
+
+        if (fromCatalog.isPresent()) {
+            return fromCatalog.get();
+        }
+
+        // the cache already shares one load per id, so reads only need coalescing without it
+        var product = this.productCache.isEnabled()
+                ? this.productCache.get(id, this.productRepository::findResponseById)
+                : this.byIdReads.execute(id, () -> this.productRepository.findResponseById(id));
+
+        return product.orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    }
+
+    /**
+     * Resolves many ids at once, from memory when possible; unknown ids are
+     * reported as missing instead of failing the call.
+     */
+    public ProductLookupResponse getByIds(List<Long> ids) {
+        this.logger.debug("Finding {} products by id", ids.size());
+
+        var distinct = List.copyOf(new LinkedHashSet<>(ids));
+        var found = new HashMap<Long, ProductResponse>();
+        var notInCatalog = new ArrayList<Long>();
+
+        for (var id : distinct) {
+            this.productCatalog.get(id).ifPresentOrElse(product -> found.put(id, product), () -> notInCatalog.add(id));
+        }
+
+        if (!notInCatalog.isEmpty()) {
+            this.productCache.getAll(notInCatalog, this::findByIds)
+                    .forEach((id, product) -> product.ifPresent(value -> found.put(id, value)));
+        }
+
+        var content = new ArrayList<ProductResponse>(found.size());
+        var missing = new ArrayList<Long>();
 
-        var entity = this.productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        for (var id : distinct) {
+            var product = found.get(id);
 
-        return ProductResponse.fromEntity(entity);
+            if (product != null) {
+                content.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return new ProductLookupResponse(content, missing);
     }
 
+    @Transactional
     public ProductResponse create(ProductRequest request) {
         this.logger.info("Creating product with name: {} and price: {}", request.name(), request.price());
 
-        if (this.productRepository.existsByName(request.name())) {
-            throw new ResourceAlreadyExistsException("Product with this name already exists");
-        }
+        var entity = saveAndFlush(ProductRequest.toEntity(request));
+        var response = ProductResponse.fromEntity(entity);
 
-        var entity = this.productRepository.saveAndFlush(ProductRequest.toEntity(request));
+        this.eventPublisher.publishEvent(ProductEvent.created(response));
 
-        return ProductResponse.fromEntity(entity);
+        return response;
     }
 
-    public ProductResponse update(Long id, ProductRequest request) {
+    /**
+     * Updates a product with a single UPDATE ... RETURNING statement. When
+     * {@code ifMatch} is given, the statement also requires one of the
+     * versions it names, so concurrent writers can't overwrite each other.
+     */
+    @Transactional
+    public ProductResponse update(Long id, ProductRequest request, String ifMatch) {
         this.logger.info("Updating product with id: {}, name: {} and price: {}", request.id(), request.name(), request.price());
 
-        if (this.productRepository.existsByName(request.name(), id)) {
-            throw new ResourceAlreadyExistsException("Product with this name already exists");
+        var conditional = ifMatch != null && !ifMatch.strip().equals("*");
+        var versions = conditional ? ProductResponse.versionsFromETags(id, ifMatch) : List.<Long>of();
+
+        if (conditional && versions.isEmpty()) {
+            throw new PreconditionFailedException("Product was modified since it was last read");
+        }
+
+        Optional<Product> updated;
+
+        try {
+            updated = conditional
+                    ? this.productRepository.updateByIdAndVersion(id, versions, request.name(), Product.normalizeName(request.name()), request.price())
+                    : this.productRepository.updateById(id, request.name(), Product.normalizeName(request.name()), request.price());
+        } catch (DataIntegrityViolationException exception) {
+            throw toAlreadyExists(exception);
         }
 
-        var entity = this.productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        // only the failure path pays a second round-trip to tell a stale version from a missing product
+        var entity = updated.orElseThrow(() -> conditional && this.productRepository.existsById(id)
+                ? new PreconditionFailedException("Product was modified since it was last read")
+                : new ResourceNotFoundException("Product not found"));
 
-        entity.setName(request.name());
-        entity.setPrice(request.price());
+        var response = ProductResponse.fromEntity(entity);
 
-        this.productRepository.saveAndFlush(entity);
+        this.eventPublisher.publishEvent(ProductEvent.updated(response));
 
-        return ProductResponse.fromEntity(entity);
+        return response;
     }
 
+    /**
+     * Deletes a product with a single DELETE statement, a missing product is
+     * told apart by the affected row count instead of a prior lookup.
+     */
+    @Transactional
     public void delete(Long id) {
         this.logger.info("Deleting product by id: {}", id);
 
-        if (!this.productRepository.existsById(id)) {
+        if (this.productRepository.deleteDirectlyById(id) == 0) {
             throw new ResourceNotFoundException("Product not found");
         }
 
-        this.productRepository.deleteById(id);
+        this.eventPublisher.publishEvent(ProductEvent.deleted(id));
+    }
+
+    private Map<Long, Optional<ProductResponse>> findByIds(Set<Long> ids) {
+        var pending = List.copyOf(ids);
+        var found = HashMap.<Long, Optional<ProductResponse>>newHashMap(pending.size());
+
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            var chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+
+            this.productRepository.findResponsesByIdIn(chunk).forEach(product -> found.put(product.id(), Optional.of(product)));
+        }
+
+        return found;
+    }
+
+    // the unique index on name_normalized is the source of truth for name conflicts
+    private Product saveAndFlush(Product entity) {
+        try {
+            return this.productRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException exception) {
+            throw toAlreadyExists(exception);
+        }
+    }
+
+    private RuntimeException toAlreadyExists(DataIntegrityViolationException exception) {
+        if (ConstraintViolations.isViolationOf(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+            return new ResourceAlreadyExistsException("Product with this name already exists");
+        }
+
+        return exception;
+    }
+
+    private PaginatedResponse<ProductResponse> findPage(int page, int limit, String sort, String order, boolean includeTotal) {
+        var pageRequest = PageRequest.of(
+                page,
+                limit,
+                order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC,
+                sort
+        );
+
+        if (!includeTotal) {
+            return toPaginatedResponse(this.productRepository.findSlice(pageRequest), null);
+        }
+
+        var cachedTotal = this.productCountCache.get();
+
+        if (cachedTotal.isPresent()) {
+            return toPaginatedResponse(this.productRepository.findSlice(pageRequest), cachedTotal.getAsLong());
+        }
+
+        var pageResponse = this.productRepository.findPage(pageRequest);
+
+        this.productCountCache.put(pageResponse.getTotalElements());
+
+        return new PaginatedResponse<>(
+                pageResponse.getContent(),
+                pageResponse.getTotalPages(),
+                pageResponse.getTotalElements(),
+                pageResponse.hasNext()
+        );
+    }
+
+    // filtered pages always break ties by id, so rows with equal sort keys can't move between pages
+    private PaginatedResponse<ProductResponse> findFilteredPage(
+            int page,
+            int limit,
+            String sort,
+            String order,
+            boolean includeTotal,
+            ProductFilter filter
+    ) {
+        var direction = order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var rows = this.productRepository.findFiltered(filter, keysetSort(sort, direction), (long) page * limit, limit + 1);
+        var hasNext = rows.size() > limit;
+        var content = hasNext ? rows.subList(0, limit) : rows;
+
+        if (!includeTotal) {
+            return new PaginatedResponse<>(content, null, null, hasNext);
+        }
+
+        var totalItems = this.productRepository.countFiltered(filter);
+        var totalPages = (int) ((totalItems + limit - 1) / limit);
+
+        return new PaginatedResponse<>(content, totalPages, totalItems, hasNext);
+    }
+
+    private void validate(ProductFilter filter) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new InvalidRequestException("Minimum price must not be greater than maximum price");
+        }
+    }
+
+    private PaginatedResponse<ProductResponse> toPaginatedResponse(Slice<ProductResponse> slice, Long totalItems) {
+        var content = slice.getContent();
+
+        if (totalItems == null) {
+            return new PaginatedResponse<>(content, null, null, slice.hasNext());
+        }
+
+        var totalPages = (int) ((totalItems + slice.getSize() - 1) / slice.getSize());
+
+        return new PaginatedResponse<>(content, totalPages, totalItems, slice.hasNext());
+    }
+
+    private Sort keysetSort(String sort, Sort.Direction direction) {
+        var byId = Sort.by(direction, "id");
+        return sort.equals("id") ? byId : Sort.by(direction, sort).and(byId);
+    }
+
+    private List<ProductResponse> seek(ProductCursor cursor, Sort.Direction direction, Limit limit) {
+        var ascending = direction.isAscending();
+
+        return switch (cursor.sort()) {
+            case "name" -> ascending
+                    ? this.productRepository.seekByNameAsc(cursor.value(), cursor.id(), limit)
+                    : this.productRepository.seekByNameDesc(cursor.value(), cursor.id(), limit);
+            case "price" -> ascending
+                    ? this.productRepository.seekByPriceAsc(cursor.priceValue(), cursor.id(), limit)
+                    : this.productRepository.seekByPriceDesc(cursor.priceValue(), cursor.id(), limit);
+            default -> ascending
+                    ? this.productRepository.seekByIdAsc(cursor.id(), limit)
+                    : this.productRepository.seekByIdDesc(cursor.id(), limit);
+        };
+    }
+
+    private record PageKey(
+            int page,
+            int limit,
+            String sort,
+            String order,
+            boolean includeTotal,
+            ProductFilter filter
+    ) {
     }
 }
@@ -0,0 +1,77 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.dto.ProductStatsResponse;
+import com.hendersonkleber.product.repository.ProductStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+
+/**
+ * Catalog price statistics kept up to date by database triggers on every
+ * insert, update and delete of a product, whichever instance or statement
+ * made it. A read sums a handful of per-bucket rows and looks up the price
+ * index twice instead of scanning the product table.
+ */
+@Service
+public class ProductStatsService {
+    private static final int[] BUCKET_MANTISSAS = {1, 2, 5};
+
+    private final Logger logger = LoggerFactory.getLogger(ProductStatsService.class);
+    private final ProductStatsRepository productStatsRepository;
+
+    public ProductStatsService(ProductStatsRepository productStatsRepository) {
+        this.productStatsRepository = productStatsRepository;
+    }
+
+    public ProductStatsResponse getStats() {
+        var buckets = this.productStatsRepository.sumPriceBuckets();
+        var range = this.productStatsRepository.findPriceRange();
+        var histogram = new ArrayList<ProductStatsResponse.PriceBucket>(buckets.size());
+        long count = 0;
+        var sum = BigDecimal.ZERO;
+
+        for (var bucket : buckets) {
+            count += bucket.getProductCount();
+            sum = sum.add(bucket.getPriceSum());
+
+            if (bucket.getBucket() != null) {
+                histogram.add(new ProductStatsResponse.PriceBucket(
+                        lowerBound(bucket.getBucket()),
+                        lowerBound(bucket.getBucket() + 1),
+                        bucket.getProductCount()
+                ));
+            }
+        }
+
+        var average = count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_EVEN);
+
+        return new ProductStatsResponse(
+                count,
+                range == null ? null : range.getMinPrice(),
+                range == null ? null : range.getMaxPrice(),
+                average,
+                histogram
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${product.stats.compact-interval:1m}")
+    public void compact() {
+        var rows = this.productStatsRepository.compactPriceDeltas();
+
+        this.logger.debug("Compacted product price deltas into {} buckets", rows);
+    }
+
+    // bucket 3e starts at 10^e, 3e + 1 at 2 * 10^e and 3e + 2 at 5 * 10^e, see product_price_bucket
+    static BigDecimal lowerBound(int bucket) {
+        var exponent = Math.floorDiv(bucket, 3);
+
+        return BigDecimal.valueOf(BUCKET_MANTISSAS[Math.floorMod(bucket, 3)])
+                .scaleByPowerOfTen(exponent)
+                .setScale(Math.max(0, -exponent));
+    }
+}
@@ -0,0 +1,102 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Fills in normalized names, then adds the unique constraint. Names that clash
+ * once normalized fail the migration, listing their ids for an operator to
+ * rename.
+ */
+public class V2_1__normalize_product_names extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_LISTED_CONFLICTS = 100;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+        var owners = new HashMap<String, Long>();
+        var conflicts = new LinkedHashMap<String, List<Long>>();
+
+        try (var select = connection.prepareStatement("SELECT id, name, name_normalized FROM tb_product WHERE name IS NOT NULL ORDER BY id");
+             var update = connection.prepareStatement("UPDATE tb_product SET name_normalized = ? WHERE id = ?")) {
+            // streams the rows instead of loading the whole table
+            select.setFetchSize(BATCH_SIZE);
+
+            try (var rows = select.executeQuery()) {
+                var pending = 0;
+
+                while (rows.next()) {
+                    var id = rows.getLong(1);
+                    var current = rows.getString(3);
+                    var normalized = current != null ? current : normalize(rows.getString(2));
+                    var owner = owners.putIfAbsent(normalized, id);
+
+                    if (owner != null) {
+                        conflicts.computeIfAbsent(normalized, key -> new ArrayList<>(List.of(owner))).add(id);
+                        continue;
+                    }
+
+                    if (normalized.equals(current)) {
+                        continue;
+                    }
+
+                    update.setString(1, normalized);
+                    update.setLong(2, id);
+                    update.addBatch();
+
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+
+        // the migration runs in a transaction, so failing here also rolls back the updates above
+        if (!conflicts.isEmpty()) {
+            throw new FlywayException(conflictMessage(conflicts));
+        }
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("""
+                    DO $$
+                    BEGIN
+                        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_product_name_normalized') THEN
+                            ALTER TABLE tb_product ADD CONSTRAINT uk_product_name_normalized UNIQUE (name_normalized);
+                        END IF;
+                    END $$
+                    """);
+        }
+    }
+
+    // a frozen copy of Product.normalizeName as it was when this migration was written; Java migrations carry no checksum
+    private static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String conflictMessage(Map<String, List<Long>> conflicts) {
+        var listed = conflicts.entrySet().stream()
+                .limit(MAX_LISTED_CONFLICTS)
+                .map(entry -> "'" + entry.getKey() + "' " + entry.getValue())
+                .collect(Collectors.joining(", "));
+        var more = conflicts.size() > MAX_LISTED_CONFLICTS ? " and " + (conflicts.size() - MAX_LISTED_CONFLICTS) + " more" : "";
+
+        return conflicts.size() + " normalized product names are shared by several products; rename all but one product of each"
+                + " group and run the migration again: " + listed + more;
+    }
+}
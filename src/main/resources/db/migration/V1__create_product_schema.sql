@@ -0,0 +1,34 @@
+CREATE SEQUENCE IF NOT EXISTS tb_product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_product (
+    id              bigint       NOT NULL,
+    created_at      timestamp(6),
+    updated_at      timestamp(6),
+    name            varchar(120),
+    name_normalized varchar(120),
+    price           numeric(15, 2),
+    version         bigint       NOT NULL DEFAULT 0,
+    CONSTRAINT tb_product_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_product_name_normalized UNIQUE (name_normalized)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON tb_product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON tb_product (price, id);
+
+CREATE SEQUENCE IF NOT EXISTS tb_product_change_seq START WITH 1 INCREMENT BY 50;
+
+-- tx_id orders the change feed by writing transaction, see ProductChangeRepository.findAfter
+CREATE TABLE IF NOT EXISTS tb_product_change (
+    id         bigint       NOT NULL,
+    tx_id      bigint       NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint),
+    created_at timestamp(6),
+    type       varchar(10)  NOT NULL,
+    product_id bigint       NOT NULL,
+    name       varchar(120),
+    price      numeric(15, 2),
+    version    bigint,
+    CONSTRAINT tb_product_change_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_change_tx_id_id ON tb_product_change (tx_id, id);
+CREATE INDEX IF NOT EXISTS idx_product_change_created_at ON tb_product_change (created_at);
@@ -0,0 +1,17 @@
+-- Databases created by ddl-auto=update before migrations existed are baselined
+-- at version 0, so V1 only adds what is missing there. This brings the rest
+-- in line; on a database created by V1 every statement is a no-op. Normalized
+-- names are filled in by V2_1, with the same code the application uses.
+
+ALTER TABLE tb_product ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS name_normalized varchar(120);
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version bigint;
+
+UPDATE tb_product SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE tb_product ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE tb_product ALTER COLUMN version SET NOT NULL;
+
+-- rows inserted through the old identity column must stay below the pooled sequence
+SELECT setval('tb_product_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tb_product) + 50, (SELECT last_value FROM tb_product_seq)));
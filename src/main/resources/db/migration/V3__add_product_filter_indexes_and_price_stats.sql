@@ -0,0 +1,85 @@
+-- substring filters on the normalized name (nameContains) use a trigram index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_product_name_normalized_trgm ON tb_product USING gin (name_normalized gin_trgm_ops);
+
+-- Price histogram in a 1-2-5 series: bucket 3e covers [10^e, 2*10^e),
+-- 3e + 1 covers [2*10^e, 5*10^e) and 3e + 2 covers [5*10^e, 10^(e+1)).
+CREATE OR REPLACE FUNCTION product_price_bucket(price numeric) RETURNS integer
+    LANGUAGE sql IMMUTABLE AS
+$$
+SELECT CASE
+           WHEN price IS NULL OR price <= 0 THEN NULL
+           ELSE CAST(floor(log(price)) AS integer) * 3 + CASE
+               WHEN price / power(10::numeric, floor(log(price))) < 2 THEN 0
+               WHEN price / power(10::numeric, floor(log(price))) < 5 THEN 1
+               ELSE 2
+           END
+       END
+$$;
+
+-- Append-only count and sum deltas per bucket, written by the triggers below
+-- and folded into one row per bucket by ProductStatsService.compact. Writers
+-- never update a shared row, so concurrent transactions don't contend on it.
+CREATE TABLE IF NOT EXISTS tb_product_price_delta (
+    bucket        integer,
+    product_count bigint         NOT NULL,
+    price_sum     numeric(30, 2) NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_product_price_delta() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tb_product_price_delta (bucket, product_count, price_sum)
+        SELECT product_price_bucket(price), count(*), COALESCE(sum(price), 0)
+        FROM new_rows
+        GROUP BY 1;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO tb_product_price_delta (bucket, product_count, price_sum)
+        SELECT product_price_bucket(price), -count(*), -COALESCE(sum(price), 0)
+        FROM old_rows
+        GROUP BY 1;
+    ELSE
+        INSERT INTO tb_product_price_delta (bucket, product_count, price_sum)
+        SELECT bucket, sum(product_count), sum(price_sum)
+        FROM (
+            SELECT product_price_bucket(price) AS bucket, 1 AS product_count, COALESCE(price, 0) AS price_sum FROM new_rows
+            UNION ALL
+            SELECT product_price_bucket(price), -1, -COALESCE(price, 0) FROM old_rows
+        ) AS changes
+        GROUP BY bucket
+        HAVING sum(product_count) <> 0 OR sum(price_sum) <> 0;
+    END IF;
+
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_product_price_insert ON tb_product;
+DROP TRIGGER IF EXISTS trg_product_price_update ON tb_product;
+DROP TRIGGER IF EXISTS trg_product_price_delete ON tb_product;
+
+CREATE TRIGGER trg_product_price_insert
+    AFTER INSERT ON tb_product
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_price_delta();
+
+CREATE TRIGGER trg_product_price_update
+    AFTER UPDATE ON tb_product
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_price_delta();
+
+CREATE TRIGGER trg_product_price_delete
+    AFTER DELETE ON tb_product
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_price_delta();
+
+-- triggers and backfill run in this migration's transaction, so no write is counted twice or missed
+DELETE FROM tb_product_price_delta;
+
+INSERT INTO tb_product_price_delta (bucket, product_count, price_sum)
+SELECT product_price_bucket(price), count(*), COALESCE(sum(price), 0)
+FROM tb_product
+GROUP BY 1;
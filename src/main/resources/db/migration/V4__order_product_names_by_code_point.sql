@@ -0,0 +1,4 @@
+-- The in-memory catalog orders names by code point, so the column does too:
+-- listings sorted by name come out the same whether the catalog serves them
+-- or the database does. idx_product_name_id is rebuilt with the new collation.
+ALTER TABLE tb_product ALTER COLUMN name TYPE varchar(120) COLLATE "C";
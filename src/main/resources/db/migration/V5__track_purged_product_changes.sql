@@ -0,0 +1,10 @@
+-- Newest feed position deleted by the retention cleanup. A cursor before it
+-- may have missed changes that no longer exist, so the feed answers it with 410.
+CREATE TABLE IF NOT EXISTS tb_product_change_purge (
+    id        smallint NOT NULL,
+    tx_id     bigint   NOT NULL,
+    change_id bigint   NOT NULL,
+    CONSTRAINT tb_product_change_purge_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO tb_product_change_purge (id, tx_id, change_id) VALUES (1, 0, 0) ON CONFLICT DO NOTHING;
@@ -0,0 +1,5 @@
+-- V4 moved name to the C collation to match the in-memory catalog, which
+-- changed the order of every listing sorted by name, catalog on or off.
+-- Name sorts follow the database's own collation again; the catalog leaves
+-- them to the database. idx_product_name_id is rebuilt with it.
+ALTER TABLE tb_product ALTER COLUMN name TYPE varchar(120) COLLATE "default";
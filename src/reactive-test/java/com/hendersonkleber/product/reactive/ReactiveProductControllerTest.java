@@ -0,0 +1,56 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.NotImplementedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductControllerTest {
+    @Mock
+    private ReactiveProductService productService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private ReactiveProductController productController;
+
+    @Test
+    @DisplayName("Should reject listing filters instead of ignoring them")
+    void shouldRejectListingFilters() {
+        // arrange
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products?minPrice=10&fields=id"));
+
+        // act
+        var exception = assertThrows(InvalidRequestException.class,
+                () -> productController.getAll(0, 10, "id", "desc", true, exchange));
+
+        // assert
+        assertEquals("Parameters not supported in reactive mode: fields, minPrice", exception.getMessage());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should answer endpoints missing from reactive mode as not implemented")
+    void shouldAnswerMissingEndpointsAsNotImplemented() {
+        // arrange
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/search?q=caf"));
+
+        // act
+        var exception = assertThrows(NotImplementedException.class, () -> productController.getNotImplemented(exchange).block());
+
+        // assert
+        assertEquals("GET /products/search is not available in reactive mode", exception.getMessage());
+    }
+}
@@ -0,0 +1,244 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.PreconditionFailedException;
+import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductServiceTest {
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // runs the wrapped publisher as is, the transaction boundary itself belongs to Spring
+        lenient().when(this.transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(this.transactionalOperator.transactional(any(Flux.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Nested
+    public class GetAll {
+        @Test
+        @DisplayName("Should fetch one extra row to tell whether there is a next page")
+        void shouldFetchOneExtraRowForHasNext() {
+            // arrange
+            var rows = Flux.range(1, 11).map(id -> product((long) id));
+
+            when(productRepository.findPage("id", Sort.Direction.DESC, 10L, 11)).thenReturn(rows);
+
+            // act
+            var response = productService.getAll(1, 10, "id", "desc", false).block();
+
+            // assert
+            assertNotNull(response);
+            assertEquals(10, response.content().size());
+            assertTrue(response.hasNext());
+            assertNull(response.totalItems());
+            verify(productRepository, never()).count();
+        }
+
+        @Test
+        @DisplayName("Should return totals when requested")
+        void shouldReturnTotalsWhenRequested() {
+            // arrange
+            when(productRepository.findPage("name", Sort.Direction.ASC, 0L, 11)).thenReturn(Flux.just(product(1L), product(2L)));
+            when(productRepository.count()).thenReturn(Mono.just(21L));
+
+            // act
+            var response = productService.getAll(0, 10, "name", "asc", true).block();
+
+            // assert
+            assertNotNull(response);
+            assertEquals(2, response.content().size());
+            assertFalse(response.hasNext());
+            assertEquals(21L, response.totalItems());
+            assertEquals(3, response.totalPages());
+        }
+    }
+
+    @Nested
+    public class GetAllByCursor {
+        @Test
+        @DisplayName("Should return a next cursor that seeks after the last product")
+        void shouldReturnNextCursor() {
+            // arrange
+            var rows = Flux.range(1, 11).map(id -> product((long) id));
+
+            when(productRepository.findPage("id", Sort.Direction.ASC, 0, 11)).thenReturn(rows);
+            when(productRepository.seek(any(), eq(Sort.Direction.ASC), eq(11))).thenReturn(Flux.empty());
+
+            // act
+            var first = productService.getAllByCursor(null, 10, "id", "asc").block();
+            var second = productService.getAllByCursor(first.nextCursor(), 10, "id", "asc").block();
+
+            // assert
+            assertNotNull(first.nextCursor());
+            assertEquals(10, first.content().size());
+            assertNotNull(second);
+            assertNull(second.nextCursor());
+            verify(productRepository).seek(argThat(cursor -> cursor.id() == 10L), eq(Sort.Direction.ASC), eq(11));
+        }
+    }
+
+    @Nested
+    public class GetById {
+        @Test
+        @DisplayName("Should signal not found when product does not exist")
+        void shouldSignalNotFound() {
+            // arrange
+            when(productRepository.findResponseById(1L)).thenReturn(Mono.empty());
+
+            // act & assert
+            var result = productService.getById(1L);
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+        }
+    }
+
+    @Nested
+    public class Create {
+        @Test
+        @DisplayName("Should record the change of a created product")
+        void shouldRecordChange() {
+            // arrange
+            var created = product(1L);
+
+            when(productRepository.insert("Henderson", Product.normalizeName("Henderson"), BigDecimal.TEN)).thenReturn(Mono.just(created));
+            when(productRepository.recordChange(any())).thenReturn(Mono.empty());
+
+            // act
+            var response = productService.create(new ProductRequest(null, "Henderson", BigDecimal.TEN)).block();
+
+            // assert
+            assertEquals(created, response);
+            verify(productRepository).recordChange(ProductEvent.created(created));
+        }
+
+        @Test
+        @DisplayName("Should signal conflict when the database reports a duplicate name")
+        void shouldSignalConflictOnDuplicateName() {
+            // arrange
+            var exception = new DataIntegrityViolationException("insert failed", new RuntimeException(
+                    "duplicate key value violates unique constraint \"" + Product.NAME_UNIQUE_CONSTRAINT + "\""
+            ));
+
+            when(productRepository.insert(any(), any(), any())).thenReturn(Mono.error(exception));
+
+            // act & assert
+            var result = productService.create(new ProductRequest(null, "Henderson", BigDecimal.TEN));
+
+            assertThrows(ResourceAlreadyExistsException.class, result::block);
+            verify(productRepository, never()).recordChange(any());
+        }
+    }
+
+    @Nested
+    public class Update {
+        @Test
+        @DisplayName("Should signal precondition failed when the version is stale")
+        void shouldSignalPreconditionFailedWhenStale() {
+            // arrange
+            when(productRepository.updateByIdAndVersion(eq(1L), eq(List.of(2L)), any(), any(), any())).thenReturn(Mono.empty());
+            when(productRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+            // act & assert
+            var result = productService.update(1L, new ProductRequest(null, "Henderson", BigDecimal.TEN), "\"1-2\"");
+
+            assertThrows(PreconditionFailedException.class, result::block);
+            verify(productRepository, never()).recordChange(any());
+        }
+
+        @Test
+        @DisplayName("Should signal not found when a conditional update targets a missing product")
+        void shouldSignalNotFoundWhenMissing() {
+            // arrange
+            when(productRepository.updateByIdAndVersion(eq(1L), eq(List.of(2L)), any(), any(), any())).thenReturn(Mono.empty());
+            when(productRepository.existsById(1L)).thenReturn(Mono.just(false));
+
+            // act & assert
+            var result = productService.update(1L, new ProductRequest(null, "Henderson", BigDecimal.TEN), "\"1-2\"");
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+        }
+
+        @Test
+        @DisplayName("Should not query existence when an unconditional update finds no product")
+        void shouldNotQueryExistenceWhenUnconditional() {
+            // arrange
+            when(productRepository.updateById(eq(1L), any(), any(), any())).thenReturn(Mono.empty());
+
+            // act & assert
+            var result = productService.update(1L, new ProductRequest(null, "Henderson", BigDecimal.TEN), null);
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+            verify(productRepository, never()).existsById(anyLong());
+        }
+    }
+
+    @Nested
+    public class Delete {
+        @Test
+        @DisplayName("Should record the change of a deleted product")
+        void shouldRecordChange() {
+            // arrange
+            when(productRepository.deleteById(1L)).thenReturn(Mono.just(1L));
+            when(productRepository.recordChange(any())).thenReturn(Mono.empty());
+
+            // act
+            productService.delete(1L).block();
+
+            // assert
+            verify(productRepository).recordChange(ProductEvent.deleted(1L));
+        }
+
+        @Test
+        @DisplayName("Should signal not found when no row was deleted")
+        void shouldSignalNotFound() {
+            // arrange
+            when(productRepository.deleteById(1L)).thenReturn(Mono.just(0L));
+
+            // act & assert
+            var result = productService.delete(1L);
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+            verify(productRepository, never()).recordChange(any());
+        }
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "Product " + id, BigDecimal.TEN, null, 0L);
+    }
+}
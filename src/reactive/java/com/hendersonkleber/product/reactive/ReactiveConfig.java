@@ -0,0 +1,56 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.config.ReactiveProperties;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.reactor.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking stack of the {@code reactive} profile. The R2DBC pool is wired
+ * here rather than by auto-configuration so that its transaction manager
+ * isn't registered as a bean next to the JPA one, which the blocking
+ * {@code @Transactional} code and the scheduled jobs keep using.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    // Tomcat stays on the classpath for the servlet mode and would otherwise serve the reactive stack too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionPool(ReactiveProperties properties) {
+        var options = ConnectionFactoryOptions.parse(properties.url()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.username())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.password())
+                .build();
+
+        var configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("product-r2dbc")
+                .maxSize(properties.maxPoolSize())
+                .maxAcquireTime(properties.acquireTimeout())
+                .build();
+
+        return new ConnectionPool(configuration);
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionPool) {
+        return DatabaseClient.create(reactiveConnectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionPool reactiveConnectionPool) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(reactiveConnectionPool));
+    }
+}
@@ -0,0 +1,137 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.NotImplementedException;
+import com.hendersonkleber.product.exception.PreconditionFailedException;
+import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code GlobalExceptionHandler} for the WebFlux controllers of the
+ * {@code reactive} profile, answering with the same problem details.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(ResourceAlreadyExistsException.class)
+    public ResponseEntity<ProblemDetail> handleResourceAlreadyExistsException(ResourceAlreadyExistsException exception, ServerWebExchange exchange) {
+        return clientError("handleResourceAlreadyExistsException", HttpStatus.CONFLICT, exception, exchange);
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleResourceNotFoundException(ResourceNotFoundException exception, ServerWebExchange exchange) {
+        return clientError("handleResourceNotFoundException", HttpStatus.NOT_FOUND, exception, exchange);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ProblemDetail> handlePreconditionFailedException(PreconditionFailedException exception, ServerWebExchange exchange) {
+        return clientError("handlePreconditionFailedException", HttpStatus.PRECONDITION_FAILED, exception, exchange);
+    }
+
+    @ExceptionHandler(NotImplementedException.class)
+    public ResponseEntity<ProblemDetail> handleNotImplementedException(NotImplementedException exception, ServerWebExchange exchange) {
+        return clientError("handleNotImplementedException", HttpStatus.NOT_IMPLEMENTED, exception, exchange);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidRequestException(InvalidRequestException exception, ServerWebExchange exchange) {
+        var response = clientError("handleInvalidRequestException", HttpStatus.BAD_REQUEST, exception, exchange);
+
+        if (!exception.getErrors().isEmpty()) {
+            response.getBody().setProperty("errors", exception.getErrors());
+        }
+
+        return response;
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ProblemDetail> handleWebExchangeBindException(WebExchangeBindException exception, ServerWebExchange exchange) {
+        var response = clientError("handleWebExchangeBindException", HttpStatus.BAD_REQUEST, exception, exchange);
+
+        List<String> errors = new ArrayList<>();
+
+        for (var error: exception.getBindingResult().getFieldErrors()) {
+            errors.add(error.getField() + ": " + error.getDefaultMessage());
+        }
+
+        for (var error: exception.getBindingResult().getGlobalErrors()) {
+            errors.add(error.getObjectName() + ": " + error.getDefaultMessage());
+        }
+
+        response.getBody().setDetail("Invalid argument");
+        response.getBody().setProperty("errors", errors);
+
+        return response;
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleAllExceptions(Exception exception, ServerWebExchange exchange) {
+        var status = HttpStatus.INTERNAL_SERVER_ERROR;
+        var problem = ProblemDetail.forStatus(status);
+
+        countError("handleAllExceptions", status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        logger.error("Exception occurred: {}, Request Details: {}",
+                exception.getMessage(),
+                describe(exchange),
+                exception
+        );
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    private ResponseEntity<ProblemDetail> clientError(String handler, HttpStatus status, Exception exception, ServerWebExchange exchange) {
+        var problem = ProblemDetail.forStatus(status);
+
+        countError(handler, status);
+
+        problem.setTitle(status.name());
+        problem.setDetail(exception.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+
+        // expected outcomes of bad input, a stack trace adds nothing but cost
+        logger.warn("Request failed: {}, Request Details: {}", exception.getMessage(), describe(exchange));
+
+        return ResponseEntity.status(status).body(problem);
+    }
+
+    private String describe(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+
+    private void countError(String handler, HttpStatus status) {
+        Counter.builder("product.api.errors")
+                .description("Errors answered by the exception handlers")
+                .tag("handler", handler)
+                .tag("status", String.valueOf(status.value()))
+                .register(this.meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,205 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.NotImplementedException;
+import com.hendersonkleber.product.service.ProductExportService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * The core product endpoints of {@code ProductController} on WebFlux; the
+ * features not ported are refused rather than ignored.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/products")
+public class ReactiveProductController {
+    private static final List<String> UNSUPPORTED_PARAMETERS = List.of("fields", "minPrice", "maxPrice", "nameContains");
+
+    private final ReactiveProductService productService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveProductController(ReactiveProductService productService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public Mono<PaginatedResponse<ProductResponse>> getAll(
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero(message = "Page must be greater than or equal to zero")
+            int page,
+
+            @RequestParam(defaultValue = "10")
+            @Min(value = 10, message = "Limit must be greater than or equal to 10")
+            @Max(value = 50, message = "Limit must be less than or equal to 50")
+            int limit,
+
+            @RequestParam(defaultValue = "id")
+            @Pattern(regexp = "id|name|price", message = "Sort must be one of: id, name or price")
+            String sort,
+
+            @RequestParam(defaultValue = "desc")
+            @Pattern(regexp = "asc|desc", message = "Order must be either asc or desc")
+            String order,
+
+            @RequestParam(defaultValue = "true")
+            boolean includeTotal,
+
+            ServerWebExchange exchange
+    ) {
+        rejectUnsupportedParameters(exchange);
+        return this.productService.getAll(page, limit, sort, order, includeTotal);
+    }
+
+    // requests with ids go to getByIds, otherwise the two mappings are ambiguous
+    @GetMapping(params = {"cursor", "!ids"})
+    public Mono<CursorPaginatedResponse<ProductResponse>> getAllByCursor(
+            @RequestParam(required = false)
+            String cursor,
+
+            @RequestParam(defaultValue = "10")
+            @Min(value = 10, message = "Limit must be greater than or equal to 10")
+            @Max(value = 50, message = "Limit must be less than or equal to 50")
+            int limit,
+
+            @RequestParam(defaultValue = "id")
+            @Pattern(regexp = "id|name|price", message = "Sort must be one of: id, name or price")
+            String sort,
+
+            @RequestParam(defaultValue = "desc")
+            @Pattern(regexp = "asc|desc", message = "Order must be either asc or desc")
+            String order,
+
+            ServerWebExchange exchange
+    ) {
+        rejectUnsupportedParameters(exchange);
+        return this.productService.getAllByCursor(cursor, limit, sort, order);
+    }
+
+    // mapped so they don't fall through to /{id} or to the plain listing
+    @GetMapping(params = "ids")
+    public Mono<Void> getByIds() {
+        return notImplemented("GET /products?ids");
+    }
+
+    @GetMapping(path = {"/search", "/changes", "/stats"})
+    public Mono<Void> getNotImplemented(ServerWebExchange exchange) {
+        return notImplemented("GET " + exchange.getRequest().getPath().value());
+    }
+
+    @PostMapping(path = {"/batch", "/lookup"})
+    public Mono<Void> postNotImplemented(ServerWebExchange exchange) {
+        return notImplemented("POST " + exchange.getRequest().getPath().value());
+    }
+
+    @DeleteMapping
+    public Mono<Void> deleteAll() {
+        return notImplemented("DELETE /products");
+    }
+
+    @GetMapping(path = "/export")
+    public ResponseEntity<Flux<String>> export(
+            @RequestParam(defaultValue = "ndjson")
+            @Pattern(regexp = "ndjson|csv", message = "Format must be either ndjson or csv")
+            String format
+    ) {
+        var csv = format.equals("csv");
+        var contentType = csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        var disposition = ContentDisposition.attachment().filename("products." + format).build();
+        var products = this.productService.export();
+
+        // each line is its own buffer, so Netty pulls rows from the database as the socket drains
+        var lines = csv
+                ? Flux.just("id,name,price\n").concatWith(products.map(product -> ProductExportService.toCsv(product) + "\n"))
+                : products.map(product -> this.objectMapper.writeValueAsString(product) + "\n");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(lines);
+    }
+
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<ProductResponse>> getById(
+            @PathVariable
+            @Positive(message = "Id must be a positive number")
+            Long id
+    ) {
+        return this.productService.getById(id)
+                .map(response -> ResponseEntity.ok()
+                        .eTag(response.etag())
+                        .lastModified(response.lastModified())
+                        .body(response));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponse>> create(
+            @RequestBody
+            @Valid
+            ProductRequest body
+    ) {
+        return this.productService.create(body)
+                .map(response -> ResponseEntity.created(URI.create("/products/" + response.id())).body(response));
+    }
+
+    @PutMapping(path = "/{id}")
+    public Mono<ResponseEntity<ProductResponse>> update(
+            @PathVariable
+            @Positive(message = "Id must be a positive number")
+            Long id,
+
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+            String ifMatch,
+
+            @RequestBody
+            @Valid
+            ProductRequest body
+    ) {
+        return this.productService.update(id, body, ifMatch)
+                .map(response -> ResponseEntity.ok()
+                        .eTag(response.etag())
+                        .lastModified(response.lastModified())
+                        .body(response));
+    }
+
+    @DeleteMapping(path = "/{id}")
+    public Mono<ResponseEntity<Void>> delete(
+            @PathVariable
+            @Positive(message = "Id must be a positive number")
+            Long id
+    ) {
+        return this.productService.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    private static void rejectUnsupportedParameters(ServerWebExchange exchange) {
+        var unsupported = UNSUPPORTED_PARAMETERS.stream()
+                .filter(exchange.getRequest().getQueryParams()::containsKey)
+                .toList();
+
+        if (!unsupported.isEmpty()) {
+            throw new InvalidRequestException("Parameters not supported in reactive mode: " + String.join(", ", unsupported));
+        }
+    }
+
+    private static Mono<Void> notImplemented(String endpoint) {
+        return Mono.error(new NotImplementedException(endpoint + " is not available in reactive mode"));
+    }
+}
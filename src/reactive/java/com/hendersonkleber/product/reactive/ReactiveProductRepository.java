@@ -0,0 +1,194 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.config.ReactiveProperties;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of {@code ProductRepository}, with the same statements
+ * written as SQL.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+    private static final String SELECT_RESPONSE = "SELECT id, name, price, updated_at, version FROM tb_product ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient, ReactiveProperties properties) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = properties.fetchSize();
+    }
+
+    public Mono<ProductResponse> findResponseById(Long id) {
+        return this.databaseClient.sql(SELECT_RESPONSE + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    public Flux<ProductResponse> findPage(String sort, Sort.Direction direction, long offset, int limit) {
+        return this.databaseClient.sql(SELECT_RESPONSE + "ORDER BY " + orderBy(sort, direction) + " LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return this.databaseClient.sql("SELECT count(*) FROM tb_product")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Rows after {@code cursor} in the cursor's order, with the same keyset
+     * conditions as the {@code seekBy*} queries of {@code ProductRepository}.
+     */
+    public Flux<ProductResponse> seek(ProductCursor cursor, Sort.Direction direction, int limit) {
+        var comparison = direction.isAscending() ? ">" : "<";
+        var column = column(cursor.sort());
+        var where = column.equals("id")
+                ? "WHERE id " + comparison + " :id "
+                : "WHERE (" + column + ", id) " + comparison + " (:value, :id) ";
+        var spec = this.databaseClient.sql(SELECT_RESPONSE + where + "ORDER BY " + orderBy(cursor.sort(), direction) + " LIMIT :limit")
+                .bind("id", cursor.id())
+                .bind("limit", limit);
+
+        if (!column.equals("id")) {
+            spec = spec.bind("value", column.equals("price") ? cursor.priceValue() : cursor.value());
+        }
+
+        return spec.map(ReactiveProductRepository::toResponse).all();
+    }
+
+    /**
+     * The whole catalog by id, fetched {@code product.reactive.fetch-size} rows
+     * at a time as the subscriber requests more.
+     */
+    public Flux<ProductResponse> streamAll() {
+        return this.databaseClient.sql(SELECT_RESPONSE + "ORDER BY id")
+                .filter(statement -> statement.fetchSize(this.fetchSize))
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    public Mono<ProductResponse> insert(String name, String nameNormalized, BigDecimal price) {
+        // Hibernate's pooled optimizer treats each value it draws as the top of its own block, so both modes share the sequence
+        return this.databaseClient.sql("""
+                        INSERT INTO tb_product (id, name, name_normalized, price, version, created_at, updated_at)
+                        VALUES (nextval('tb_product_seq'), :name, :nameNormalized, :price, 0, LOCALTIMESTAMP, LOCALTIMESTAMP)
+                        RETURNING id, name, price, updated_at, version
+                        """)
+                .bind("name", name)
+                .bind("nameNormalized", nameNormalized)
+                .bind("price", price)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    public Mono<ProductResponse> updateById(Long id, String name, String nameNormalized, BigDecimal price) {
+        return this.databaseClient.sql("""
+                        UPDATE tb_product
+                        SET name = :name, name_normalized = :nameNormalized, price = :price,
+                            version = COALESCE(version, 0) + 1, updated_at = LOCALTIMESTAMP
+                        WHERE id = :id
+                        RETURNING id, name, price, updated_at, version
+                        """)
+                .bind("id", id)
+                .bind("name", name)
+                .bind("nameNormalized", nameNormalized)
+                .bind("price", price)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    public Mono<ProductResponse> updateByIdAndVersion(Long id, Collection<Long> versions, String name, String nameNormalized, BigDecimal price) {
+        return this.databaseClient.sql("""
+                        UPDATE tb_product
+                        SET name = :name, name_normalized = :nameNormalized, price = :price,
+                            version = version + 1, updated_at = LOCALTIMESTAMP
+                        WHERE id = :id AND version = ANY(:versions)
+                        RETURNING id, name, price, updated_at, version
+                        """)
+                .bind("id", id)
+                .bind("versions", versions.toArray(Long[]::new))
+                .bind("name", name)
+                .bind("nameNormalized", nameNormalized)
+                .bind("price", price)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return this.databaseClient.sql("SELECT EXISTS (SELECT 1 FROM tb_product WHERE id = :id)")
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return this.databaseClient.sql("DELETE FROM tb_product WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Writes the outbox row of a change, as {@code ProductChangeRecorder} does
+     * in the blocking mode; must run in the transaction of the change.
+     */
+    public Mono<Void> recordChange(ProductEvent event) {
+        var product = event.product();
+        var spec = this.databaseClient.sql("""
+                        INSERT INTO tb_product_change (id, created_at, type, product_id, name, price, version)
+                        VALUES (nextval('tb_product_change_seq'), LOCALTIMESTAMP, :type, :productId, :name, :price, :version)
+                        """)
+                .bind("type", event.type().name())
+                .bind("productId", event.id());
+
+        spec = product == null
+                ? spec.bindNull("name", String.class).bindNull("price", BigDecimal.class).bindNull("version", Long.class)
+                : spec.bind("name", product.name()).bind("price", product.price()).bind("version", product.version());
+
+        return spec.then();
+    }
+
+    private static String column(String sort) {
+        return switch (sort) {
+            case "name" -> "name";
+            case "price" -> "price";
+            default -> "id";
+        };
+    }
+
+    private static String orderBy(String sort, Sort.Direction direction) {
+        var column = column(sort);
+        var order = direction.isAscending() ? "ASC" : "DESC";
+
+        return column.equals("id") ? "id " + order : column + " " + order + ", id " + order;
+    }
+
+    private static ProductResponse toResponse(Readable row) {
+        return new ProductResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("version", Long.class)
+        );
+    }
+}
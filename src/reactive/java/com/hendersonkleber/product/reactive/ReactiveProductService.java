@@ -0,0 +1,186 @@
+package com.hendersonkleber.product.reactive;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.ConstraintViolations;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.PreconditionFailedException;
+import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@code ProductService} on the reactive stack: same rules and errors, with
+ * every statement issued without blocking a thread. Writes and their outbox
+ * rows share one R2DBC transaction.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+    private final Logger logger = LoggerFactory.getLogger(ReactiveProductService.class);
+    private final ReactiveProductRepository productRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveProductService(
+            ReactiveProductRepository productRepository,
+            TransactionalOperator transactionalOperator
+    ) {
+        this.productRepository = productRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<PaginatedResponse<ProductResponse>> getAll(
+            int page,
+            int limit,
+            String sort,
+            String order,
+            boolean includeTotal
+    ) {
+        this.logger.debug("Finding products page: {}, limit: {}, sort: {}, order: {}", page, limit, sort, order);
+
+        var direction = order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var rows = this.productRepository.findPage(sort, direction, (long) page * limit, limit + 1).collectList();
+
+        if (!includeTotal) {
+            return rows.map(content -> toPaginatedResponse(content, limit, null));
+        }
+
+        return Mono.zip(rows, this.productRepository.count())
+                .map(result -> toPaginatedResponse(result.getT1(), limit, result.getT2()));
+    }
+
+    public Mono<CursorPaginatedResponse<ProductResponse>> getAllByCursor(
+            String cursor,
+            int limit,
+            String sort,
+            String order
+    ) {
+        var direction = order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var position = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+
+        if (position != null && (!position.sort().equals(sort) || !position.order().equalsIgnoreCase(order))) {
+            return Mono.error(new InvalidRequestException("Cursor does not match the requested sort and order"));
+        }
+
+        this.logger.debug("Finding products after cursor: {}, limit: {}, sort: {}, order: {}", cursor, limit, sort, order);
+
+        // one extra row tells whether there is a next page without running a count
+        var rows = position == null
+                ? this.productRepository.findPage(sort, direction, 0, limit + 1)
+                : this.productRepository.seek(position, direction, limit + 1);
+
+        return rows.collectList().map(list -> {
+            var hasNext = list.size() > limit;
+            var content = hasNext ? list.subList(0, limit) : list;
+            var nextCursor = hasNext ? ProductCursor.of(sort, order, content.getLast()).encode() : null;
+
+            return new CursorPaginatedResponse<>(content, nextCursor);
+        });
+    }
+
+    public Mono<ProductResponse> getById(Long id) {
+        this.logger.debug("Finding product by id: {}", id);
+
+        return this.productRepository.findResponseById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found")));
+    }
+
+    /**
+     * The whole catalog by id, read from the database only as fast as the
+     * client consumes it.
+     */
+    public Flux<ProductResponse> export() {
+        this.logger.info("Exporting products");
+
+        return this.transactionalOperator.transactional(this.productRepository.streamAll());
+    }
+
+    public Mono<ProductResponse> create(ProductRequest request) {
+        this.logger.info("Creating product with name: {} and price: {}", request.name(), request.price());
+
+        var created = this.productRepository.insert(request.name(), Product.normalizeName(request.name()), request.price())
+                .flatMap(response -> this.productRepository.recordChange(ProductEvent.created(response)).thenReturn(response));
+
+        return this.transactionalOperator.transactional(created)
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveProductService::toAlreadyExists);
+    }
+
+    /**
+     * Updates with a single UPDATE ... RETURNING statement, conditional on
+     * one of the versions named by {@code ifMatch} when given.
+     */
+    public Mono<ProductResponse> update(Long id, ProductRequest request, String ifMatch) {
+        this.logger.info("Updating product with id: {}, name: {} and price: {}", id, request.name(), request.price());
+
+        var conditional = ifMatch != null && !ifMatch.strip().equals("*");
+        var versions = conditional ? ProductResponse.versionsFromETags(id, ifMatch) : List.<Long>of();
+
+        if (conditional && versions.isEmpty()) {
+            return Mono.error(new PreconditionFailedException("Product was modified since it was last read"));
+        }
+
+        var nameNormalized = Product.normalizeName(request.name());
+        var updated = conditional
+                ? this.productRepository.updateByIdAndVersion(id, versions, request.name(), nameNormalized, request.price())
+                : this.productRepository.updateById(id, request.name(), nameNormalized, request.price());
+
+        var result = updated
+                .flatMap(response -> this.productRepository.recordChange(ProductEvent.updated(response)).thenReturn(response))
+                // only the failure path pays a second round-trip to tell a stale version from a missing product
+                .switchIfEmpty(Mono.defer(() -> conditional
+                        ? this.productRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new PreconditionFailedException("Product was modified since it was last read")
+                                : new ResourceNotFoundException("Product not found")))
+                        : Mono.error(new ResourceNotFoundException("Product not found"))));
+
+        return this.transactionalOperator.transactional(result)
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveProductService::toAlreadyExists);
+    }
+
+    public Mono<Void> delete(Long id) {
+        this.logger.info("Deleting product by id: {}", id);
+
+        var deleted = this.productRepository.deleteById(id)
+                .flatMap(rows -> rows == 0
+                        ? Mono.<Void>error(new ResourceNotFoundException("Product not found"))
+                        : this.productRepository.recordChange(ProductEvent.deleted(id)));
+
+        return this.transactionalOperator.transactional(deleted);
+    }
+
+    private static Throwable toAlreadyExists(DataIntegrityViolationException exception) {
+        if (ConstraintViolations.isViolationOf(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+            return new ResourceAlreadyExistsException("Product with this name already exists");
+        }
+
+        return exception;
+    }
+
+    private static PaginatedResponse<ProductResponse> toPaginatedResponse(List<ProductResponse> rows, int limit, Long totalItems) {
+        var hasNext = rows.size() > limit;
+        var content = hasNext ? rows.subList(0, limit) : rows;
+
+        if (totalItems == null) {
+            return new PaginatedResponse<>(content, null, null, hasNext);
+        }
+
+        var totalPages = (int) ((totalItems + limit - 1) / limit);
+
+        return new PaginatedResponse<>(content, totalPages, totalItems, hasNext);
+    }
+}
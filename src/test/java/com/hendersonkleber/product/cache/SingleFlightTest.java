@@ -0,0 +1,104 @@
+package com.hendersonkleber.product.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    @DisplayName("Should run one load for concurrent calls with the same key")
+    void shouldRunOneLoadForConcurrentCallsWithSameKey() throws Exception {
+        // arrange
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var followers = 5;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "product";
+            }), executor);
+
+            started.await();
+
+            var results = new ArrayList<CompletableFuture<String>>();
+
+            for (int i = 0; i < followers; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                }), executor));
+            }
+
+            while (coalesced() < followers) {
+                Thread.onSpinWait();
+            }
+
+            // act
+            release.countDown();
+
+            // assert
+            assertEquals("product", leader.get(5, TimeUnit.SECONDS));
+
+            for (var result : results) {
+                assertEquals("product", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(followers, coalesced());
+    }
+
+    @Test
+    @DisplayName("Should load again once the previous load finished")
+    void shouldLoadAgainOncePreviousLoadFinished() {
+        // arrange
+        var loads = new AtomicInteger();
+
+        // act
+        singleFlight.execute(1L, () -> "v" + loads.incrementAndGet());
+        var second = singleFlight.execute(1L, () -> "v" + loads.incrementAndGet());
+
+        // assert
+        assertEquals("v2", second);
+        assertEquals(0, coalesced());
+    }
+
+    @Test
+    @DisplayName("Should propagate loader exception")
+    void shouldPropagateLoaderException() {
+        // assert & act
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", singleFlight.execute(1L, () -> "ok"));
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("product.reads.coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
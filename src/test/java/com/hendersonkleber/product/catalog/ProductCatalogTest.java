@@ -0,0 +1,211 @@
+package com.hendersonkleber.product.catalog;
+
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogTest {
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = ProductCatalog.of(List.of(
+                product(1L, "Cafeteira", "30.00", 1L),
+                product(2L, "Açúcar", "5.50", 1L),
+                product(3L, "Biscoito", "5.50", 1L),
+                product(4L, "Arroz", "12.00", 1L)
+        ).iterator());
+    }
+
+    @Test
+    @DisplayName("Should page by each sort key in both directions, breaking ties by id")
+    void shouldPageBySortKeyInBothDirections() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(catalog.page("id", true, 0, 10)));
+        assertEquals(List.of(4L, 3L), ids(catalog.page("id", false, 0, 2)));
+        assertEquals(List.of(2L, 3L, 4L, 1L), ids(catalog.page("price", true, 0, 10)));
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(catalog.page("price", false, 0, 10)));
+        assertEquals(List.of(3L, 2L), ids(catalog.page("price", false, 2, 10)));
+        assertTrue(catalog.page("price", true, 4, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave name order to the database")
+    void shouldLeaveNameOrderToTheDatabase() {
+        assertFalse(ProductCatalog.supports("name"));
+        assertThrows(IllegalArgumentException.class, () -> catalog.page("name", true, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should return products as the database would")
+    void shouldReturnProductsAsTheDatabaseWould() {
+        var product = catalog.get(2L).orElseThrow();
+
+        assertEquals("Açúcar", product.name());
+        assertEquals(new BigDecimal("5.50"), product.price());
+        assertEquals(UPDATED_AT, product.updatedAt());
+        assertEquals(1L, product.version());
+        assertTrue(catalog.get(99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should move updated products in the sorted indexes")
+    void shouldMoveUpdatedProducts() {
+        // act
+        catalog.put(product(1L, "Abacaxi", "1", 2L));
+        catalog.put(product(4L, "Arroz", "99.999", 2L));
+
+        // assert
+        assertEquals("Abacaxi", catalog.get(1L).orElseThrow().name());
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(catalog.page("price", true, 0, 10)));
+        assertEquals(new BigDecimal("100.00"), catalog.get(4L).orElseThrow().price());
+        assertEquals(4, catalog.size());
+    }
+
+    @Test
+    @DisplayName("Should remove products and reuse their slots")
+    void shouldRemoveProductsAndReuseSlots() {
+        // act
+        catalog.remove(2L);
+        catalog.remove(99L);
+        catalog.put(product(5L, "Banana", "7.00", 0L));
+
+        // assert
+        assertTrue(catalog.get(2L).isEmpty());
+        assertEquals(List.of(1L, 3L, 4L, 5L), ids(catalog.page("id", true, 0, 10)));
+        assertEquals(List.of(3L, 5L, 4L, 1L), ids(catalog.page("price", true, 0, 10)));
+        assertEquals(4, catalog.size());
+    }
+
+    @Test
+    @DisplayName("Should keep a removed product out until its removal is forgotten")
+    void shouldKeepRemovedProductOut() {
+        // arrange
+        catalog.remove(3L);
+        var removals = catalog.removals();
+
+        // act
+        catalog.put(product(3L, "Biscoito", "5.50", 1L));
+
+        // assert
+        assertTrue(catalog.get(3L).isEmpty());
+
+        catalog.forgetRemovals(removals);
+        catalog.put(product(3L, "Biscoito", "5.50", 1L));
+
+        assertEquals("Biscoito", catalog.get(3L).orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("Should ignore products older than the one held")
+    void shouldIgnoreOlderVersions() {
+        // act
+        catalog.put(product(3L, "Bolacha", "5.50", 3L));
+        catalog.put(product(3L, "Biscoito", "5.50", 2L));
+
+        // assert
+        assertEquals("Bolacha", catalog.get(3L).orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("Should keep names readable after many renames")
+    void shouldKeepNamesAfterManyRenames() {
+        // act
+        for (long version = 2; version < 5_000; version++) {
+            catalog.put(product(1L, "Cafeteira " + version, "30.00", version));
+        }
+
+        // assert
+        assertEquals("Cafeteira 4999", catalog.get(1L).orElseThrow().name());
+        assertEquals("Açúcar", catalog.get(2L).orElseThrow().name());
+        assertEquals("Arroz", catalog.get(4L).orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("Should build sorted indexes for large catalogs")
+    void shouldBuildSortedIndexesForLargeCatalogs() {
+        // arrange
+        var large = ProductCatalog.of(LongStream.rangeClosed(1, 10_000)
+                .mapToObj(id -> product(id, "Product " + (10_000 - id), String.valueOf(id % 7), 0L))
+                .iterator());
+
+        // act
+        var byPrice = large.page("price", true, 0, 10_000);
+
+        // assert
+        for (int i = 1; i < byPrice.size(); i++) {
+            var compared = byPrice.get(i - 1).price().compareTo(byPrice.get(i).price());
+            assertTrue(compared < 0 || compared == 0 && byPrice.get(i - 1).id() < byPrice.get(i).id());
+        }
+
+        assertEquals(10_000L, large.page("id", false, 0, 1).getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Should restore catalog and change feed position from a snapshot")
+    void shouldRestoreFromSnapshot(@TempDir Path directory) throws IOException {
+        // arrange
+        var file = directory.resolve("catalog.snapshot");
+        var position = new ProductChangeCursor(42L, 7L);
+
+        catalog.put(product(1L, "Abacaxi", "1.00", 2L));
+        catalog.remove(3L);
+
+        // act
+        ProductCatalogSnapshot.write(catalog, position, file);
+        var snapshot = ProductCatalogSnapshot.read(file);
+
+        // assert
+        var restored = snapshot.catalog();
+
+        assertEquals(position, snapshot.position());
+        assertEquals(catalog.page("id", true, 0, 10), restored.page("id", true, 0, 10));
+        assertEquals(catalog.page("price", false, 0, 10), restored.page("price", false, 0, 10));
+
+        restored.put(product(6L, "Aveia", "2.00", 0L));
+
+        assertEquals(List.of(1L, 6L, 2L, 4L), ids(restored.page("price", true, 0, 10)));
+        assertEquals("Aveia", restored.get(6L).orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("Should reject a corrupted snapshot")
+    void shouldRejectCorruptedSnapshot(@TempDir Path directory) throws IOException {
+        // arrange
+        var file = directory.resolve("catalog.snapshot");
+
+        ProductCatalogSnapshot.write(catalog, ProductChangeCursor.START, file);
+
+        try (var channel = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+            channel.position(channel.size() - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}));
+        }
+
+        // act & assert
+        assertThrows(IOException.class, () -> ProductCatalogSnapshot.read(file));
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::id).toList();
+    }
+
+    private static ProductResponse product(Long id, String name, String price, Long version) {
+        return new ProductResponse(id, name, new BigDecimal(price), UPDATED_AT, version);
+    }
+}
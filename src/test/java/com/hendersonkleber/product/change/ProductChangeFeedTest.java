@@ -0,0 +1,128 @@
+package com.hendersonkleber.product.change;
+
+import com.hendersonkleber.product.config.ProductChangeProperties;
+import com.hendersonkleber.product.domain.ProductChange;
+import com.hendersonkleber.product.dto.CursorPaginatedResponse;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductChangeResponse;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.GoneException;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.repository.ProductChangeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductChangeFeedTest {
+    private final ProductChangeRepository productChangeRepository = mock(ProductChangeRepository.class);
+    private final ProductChangeFeed feed = new ProductChangeFeed(
+            productChangeRepository,
+            mock(PlatformTransactionManager.class),
+            new ProductChangeProperties(Duration.ofSeconds(30), Duration.ofMillis(500), Duration.ofDays(7), Duration.ofMinutes(10), 2)
+    );
+
+    @Test
+    @DisplayName("Should answer at once when there are changes after the cursor")
+    void shouldAnswerAtOnceWhenThereAreChanges() {
+        // arrange
+        var change = change(100L, 7L);
+
+        doReturn(List.of(change)).when(productChangeRepository).findAfter(0, 0, 10);
+
+        // act
+        var result = feed.poll(null, 10);
+
+        // assert
+        var response = (CursorPaginatedResponse<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(1, response.content().size());
+        assertEquals(ProductEvent.Type.CREATED, ((ProductChangeResponse) response.content().getFirst()).type());
+        assertEquals(new ProductChangeCursor(100L, 7L), ProductChangeCursor.decode(response.nextCursor()));
+        assertEquals(0, feed.getWaiting());
+    }
+
+    @Test
+    @DisplayName("Should answer waiters on the same cursor with a single query")
+    void shouldAnswerWaitersOnSameCursorWithSingleQuery() {
+        // arrange
+        var since = new ProductChangeCursor(100L, 7L);
+        var first = feed.poll(since.encode(), 1);
+        var second = feed.poll(since.encode(), 2);
+
+        clearInvocations(productChangeRepository);
+        doReturn(List.of(change(101L, 8L), change(101L, 9L))).when(productChangeRepository).findAfter(100L, 7L, 2);
+
+        // act
+        feed.notifyWaiters();
+
+        // assert
+        assertEquals(1, ((CursorPaginatedResponse<?>) first.getResult()).content().size());
+        assertEquals(2, ((CursorPaginatedResponse<?>) second.getResult()).content().size());
+        verify(productChangeRepository, times(1)).findAfter(100L, 7L, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep waiting while there are no changes")
+    void shouldKeepWaitingWhileThereAreNoChanges() {
+        // arrange
+        doReturn(List.of()).when(productChangeRepository).findAfter(anyLong(), anyLong(), anyInt());
+
+        // act
+        var result = feed.poll(null, 10);
+        feed.notifyWaiters();
+
+        // assert
+        assertFalse(result.hasResult());
+        assertEquals(1, feed.getWaiting());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when changes after the cursor were deleted")
+    void shouldThrowExceptionWhenChangesAfterCursorWereDeleted() {
+        // arrange
+        var since = new ProductChangeCursor(100L, 7L);
+
+        doReturn(true).when(productChangeRepository).isPurgedAfter(100L, 7L);
+
+        // act & assert
+        assertThrows(GoneException.class, () -> feed.poll(since.encode(), 10));
+        verify(productChangeRepository, never()).findAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should delete expired changes in chunks until one comes back short")
+    void shouldDeleteExpiredChangesInChunks() {
+        // arrange
+        doReturn(2, 2, 1).when(productChangeRepository).deleteExpired(any(), eq(2));
+
+        // act
+        feed.deleteExpired();
+
+        // assert
+        verify(productChangeRepository, times(3)).deleteExpired(any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when cursor is malformed")
+    void shouldThrowExceptionWhenCursorIsMalformed() {
+        assertThrows(InvalidRequestException.class, () -> feed.poll("not-a-cursor", 10));
+    }
+
+    private static ProductChange change(Long txId, Long id) {
+        var change = new ProductChange(ProductEvent.created(new ProductResponse(1L, "Henderson", BigDecimal.TEN, null, 0L)));
+
+        ReflectionTestUtils.setField(change, "txId", txId);
+        ReflectionTestUtils.setField(change, "id", id);
+
+        return change;
+    }
+}
@@ -0,0 +1,188 @@
+package com.hendersonkleber.product.controller;
+
+import com.hendersonkleber.product.change.ProductChangeFeed;
+import com.hendersonkleber.product.config.ConcurrencyLimitProperties;
+import com.hendersonkleber.product.config.RateLimitProperties;
+import com.hendersonkleber.product.datasource.ReplicaRoutingDataSource;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductFilter;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.service.ProductBatchService;
+import com.hendersonkleber.product.service.ProductExportService;
+import com.hendersonkleber.product.service.ProductSearchService;
+import com.hendersonkleber.product.service.ProductService;
+import com.hendersonkleber.product.service.ProductStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.math.BigDecimal;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(ProductController.class)
+@Import(ProductControllerTest.WebConfiguration.class)
+class ProductControllerTest {
+    private static final ProductResponse PRODUCT = new ProductResponse(1L, "Henderson", new BigDecimal("10.00"), LocalDateTime.of(2024, 5, 1, 12, 0), 3L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private ProductBatchService productBatchService;
+
+    @MockitoBean
+    private ProductExportService productExportService;
+
+    @MockitoBean
+    private ProductSearchService productSearchService;
+
+    @MockitoBean
+    private ProductChangeFeed productChangeFeed;
+
+    @MockitoBean
+    private ProductStatsService productStatsService;
+
+    @MockitoBean
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @TestConfiguration
+    @EnableConfigurationProperties({ConcurrencyLimitProperties.class, RateLimitProperties.class})
+    static class WebConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Nested
+    class GetById {
+        @Test
+        @DisplayName("Should return CBOR when the client accepts it")
+        void shouldReturnCborWhenAccepted() throws Exception {
+            // arrange
+            doReturn(PRODUCT).when(productService).getById(1L);
+
+            // act
+            var response = mockMvc.perform(get("/products/1").accept(MediaType.APPLICATION_CBOR)).andReturn().getResponse();
+
+            // assert
+            assertEquals(200, response.getStatus());
+            assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+            assertEquals(PRODUCT, CBORMapper.builder().build().readValue(response.getContentAsByteArray(), ProductResponse.class));
+            assertEquals("\"1-3-cbor\"", response.getHeader(HttpHeaders.ETAG));
+            assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+        }
+
+        @Test
+        @DisplayName("Should tag JSON and CBOR representations differently")
+        void shouldTagRepresentationsDifferently() throws Exception {
+            // arrange
+            doReturn(PRODUCT).when(productService).getById(1L);
+
+            // act
+            var json = mockMvc.perform(get("/products/1").accept(MediaType.APPLICATION_JSON)).andReturn().getResponse();
+            var cborWithJsonTag = mockMvc.perform(get("/products/1")
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .header(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG))).andReturn().getResponse();
+            var jsonAgain = mockMvc.perform(get("/products/1")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG))).andReturn().getResponse();
+
+            // assert
+            assertEquals("\"1-3\"", json.getHeader(HttpHeaders.ETAG));
+            assertEquals(200, cborWithJsonTag.getStatus());
+            assertEquals(304, jsonAgain.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should answer 503 when no database connection frees up in time")
+        void shouldAnswerServiceUnavailableOnPoolTimeout() throws Exception {
+            // arrange
+            var timeout = new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out after 2000ms.");
+
+            doThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction", timeout))
+                    .when(productService).getById(1L);
+
+            // act
+            var response = mockMvc.perform(get("/products/1")).andReturn().getResponse();
+
+            // assert
+            assertEquals(503, response.getStatus());
+            assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        }
+    }
+
+    @Nested
+    class GetAll {
+        @Test
+        @DisplayName("Should keep null fields of full products and drop unselected ones of sparse fieldsets")
+        void shouldDropOnlyUnselectedFields() throws Exception {
+            // arrange
+            var unversioned = new ProductResponse(2L, "Kleber", new BigDecimal("20.00"), LocalDateTime.of(2024, 5, 1, 12, 0), null);
+
+            doReturn(new PaginatedResponse<>(List.of(unversioned), 1, 1L, false))
+                    .when(productService).getAll(0, 10, "id", "desc", true, ProductFilter.NONE);
+
+            // act
+            var full = mockMvc.perform(get("/products")).andReturn().getResponse().getContentAsString();
+            var sparse = mockMvc.perform(get("/products").param("fields", "id,name")).andReturn().getResponse().getContentAsString();
+
+            // assert
+            assertTrue(full.contains("\"version\":null"), full);
+            assertTrue(sparse.contains("{\"id\":2,\"name\":\"Kleber\"}"), sparse);
+        }
+
+        @Test
+        @DisplayName("Should change the list ETag when a product version changes within the same timestamp")
+        void shouldChangeListETagWhenVersionChanges() throws Exception {
+            // arrange
+            var updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+            var before = new ProductResponse(2L, "Kleber", new BigDecimal("20.00"), updatedAt, 1L);
+            var after = new ProductResponse(2L, "Kleber", new BigDecimal("25.00"), updatedAt, 2L);
+
+            doReturn(new PaginatedResponse<>(List.of(before), 1, 1L, false), new PaginatedResponse<>(List.of(after), 1, 1L, false))
+                    .when(productService).getAll(0, 10, "id", "desc", true, ProductFilter.NONE);
+
+            // act
+            var first = mockMvc.perform(get("/products")).andReturn().getResponse().getHeader("ETag");
+            var second = mockMvc.perform(get("/products")).andReturn().getResponse().getHeader("ETag");
+
+            // assert
+            assertNotEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("Should reject ids combined with a cursor")
+        void shouldRejectIdsCombinedWithCursor() throws Exception {
+            // act
+            var response = mockMvc.perform(get("/products").param("ids", "1").param("cursor", "x")).andReturn().getResponse();
+
+            // assert
+            assertEquals(400, response.getStatus());
+            verifyNoInteractions(productService);
+        }
+    }
+}
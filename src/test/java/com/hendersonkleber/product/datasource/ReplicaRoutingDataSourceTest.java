@@ -0,0 +1,138 @@
+package com.hendersonkleber.product.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    ReplicaRoutingDataSourceTest() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("1", first);
+        replicas.put("2", second);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should use primary until replicas are checked")
+    void shouldUsePrimaryUntilReplicasAreChecked() throws Exception {
+        // act
+        var connection = routingDataSource.getConnection();
+
+        // assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    @DisplayName("Should alternate between healthy replicas")
+    void shouldAlternateBetweenHealthyReplicas() throws Exception {
+        // arrange
+        routingDataSource.setHealthy("1", true);
+        routingDataSource.setHealthy("2", true);
+
+        // act
+        var connections = List.of(routingDataSource.getConnection(), routingDataSource.getConnection());
+
+        // assert
+        assertTrue(connections.contains(firstConnection));
+        assertTrue(connections.contains(secondConnection));
+    }
+
+    @Test
+    @DisplayName("Should skip lagging replica")
+    void shouldSkipLaggingReplica() throws Exception {
+        // arrange
+        routingDataSource.setHealthy("1", false);
+        routingDataSource.setHealthy("2", true);
+
+        // act & assert
+        assertSame(secondConnection, routingDataSource.getConnection());
+        assertSame(secondConnection, routingDataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Should fall back to primary when no replica is healthy")
+    void shouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws Exception {
+        // arrange
+        routingDataSource.setHealthy("1", true);
+        routingDataSource.setHealthy("1", false);
+
+        // act
+        var connection = routingDataSource.getConnection();
+
+        // assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(first, second);
+    }
+
+    @Test
+    @DisplayName("Should use primary for reads that fill a cache")
+    void shouldUsePrimaryForPrimaryReads() throws Exception {
+        // arrange
+        routingDataSource.setHealthy("1", true);
+        routingDataSource.setHealthy("2", true);
+
+        // act
+        var connection = PrimaryReads.run(() -> {
+            try {
+                return routingDataSource.getConnection();
+            } catch (SQLException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        // assert
+        assertSame(primaryConnection, connection);
+        assertFalse(PrimaryReads.isActive());
+        assertSame(firstConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should count the threads waiting for a connection in every open pool")
+    void shouldCountThreadsAwaitingConnectionInOpenPools() {
+        // arrange
+        var primaryPool = mock(HikariDataSource.class);
+        var openReplica = mock(HikariDataSource.class);
+        var unopenedReplica = mock(HikariDataSource.class);
+        var primaryBean = mock(HikariPoolMXBean.class);
+        var replicaBean = mock(HikariPoolMXBean.class);
+
+        doReturn(primaryBean).when(primaryPool).getHikariPoolMXBean();
+        doReturn(replicaBean).when(openReplica).getHikariPoolMXBean();
+        doReturn(3).when(primaryBean).getThreadsAwaitingConnection();
+        doReturn(2).when(replicaBean).getThreadsAwaitingConnection();
+
+        var pools = new ReplicaRoutingDataSource(primaryPool, Map.of("1", openReplica, "2", unopenedReplica), new SimpleMeterRegistry());
+
+        // act
+        var waiting = pools.getThreadsAwaitingConnection();
+
+        // assert
+        assertEquals(5, waiting);
+    }
+}
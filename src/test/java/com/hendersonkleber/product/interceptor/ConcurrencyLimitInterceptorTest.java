@@ -0,0 +1,116 @@
+package com.hendersonkleber.product.interceptor;
+
+import com.hendersonkleber.product.config.ConcurrencyLimitProperties;
+import com.hendersonkleber.product.datasource.ReplicaRoutingDataSource;
+import com.hendersonkleber.product.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaRoutingDataSource dataSource = mock(ReplicaRoutingDataSource.class);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    @DisplayName("Should reject request when the limit is reached")
+    void shouldRejectRequestWhenTheLimitIsReached() {
+        // arrange
+        var interceptor = new ConcurrencyLimitInterceptor(new ConcurrencyLimitProperties(true, 1, 1), dataSource, meterRegistry);
+        var first = new MockHttpServletRequest();
+        var second = new MockHttpServletRequest();
+
+        // act
+        interceptor.preHandle(first, response, new Object());
+
+        // assert
+        assertThrows(ServiceUnavailableException.class, () -> interceptor.preHandle(second, response, new Object()));
+        assertEquals(1.0, meterRegistry.get("product.requests.shed").tag("reason", "concurrency").counter().count());
+
+        interceptor.afterCompletion(first, response, new Object(), null);
+        assertTrue(interceptor.preHandle(second, response, new Object()));
+    }
+
+    @Test
+    @DisplayName("Should keep a single slot across async dispatch")
+    void shouldKeepSingleSlotAcrossAsyncDispatch() {
+        // arrange
+        var interceptor = new ConcurrencyLimitInterceptor(new ConcurrencyLimitProperties(true, 1, 1), dataSource, meterRegistry);
+        var request = new MockHttpServletRequest();
+
+        // act
+        interceptor.preHandle(request, response, new Object());
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // assert
+        assertEquals(0, interceptor.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should keep the limit while requests slow down without waiting for a connection")
+    void shouldKeepTheLimitWhenRequestsSlowDownWithoutQueueing() {
+        // arrange
+        var interceptor = new ConcurrencyLimitInterceptor(new ConcurrencyLimitProperties(true, 5, 50), dataSource, meterRegistry);
+
+        doReturn(0).when(dataSource).getThreadsAwaitingConnection();
+
+        // act
+        for (int held = 1; held <= 50; held++) {
+            complete(interceptor, held);
+        }
+
+        // assert
+        assertEquals(50, interceptor.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should lower the limit while requests wait for a connection and recover once they don't")
+    void shouldLowerTheLimitWhileRequestsQueueAndRecover() {
+        // arrange
+        var interceptor = new ConcurrencyLimitInterceptor(new ConcurrencyLimitProperties(true, 5, 50), dataSource, meterRegistry);
+
+        doReturn(30).when(dataSource).getThreadsAwaitingConnection();
+
+        // act
+        for (int i = 0; i < 20; i++) {
+            complete(interceptor, 1);
+        }
+
+        var degraded = interceptor.getLimit();
+
+        doReturn(0).when(dataSource).getThreadsAwaitingConnection();
+
+        for (int i = 0; i < 200; i++) {
+            complete(interceptor, 1);
+        }
+
+        // assert
+        assertTrue(degraded < 50, "limit should shrink, was " + degraded);
+        assertTrue(degraded >= 5, "limit should respect the minimum, was " + degraded);
+        assertEquals(50, interceptor.getLimit());
+    }
+
+    // holds that many slots at once, as slower requests do, then releases them all
+    private void complete(ConcurrencyLimitInterceptor interceptor, int held) {
+        var requests = new ArrayList<MockHttpServletRequest>();
+
+        for (int i = 0; i < held; i++) {
+            var request = new MockHttpServletRequest();
+
+            interceptor.preHandle(request, response, new Object());
+            requests.add(request);
+        }
+
+        requests.forEach(request -> interceptor.afterCompletion(request, response, new Object(), null));
+    }
+}
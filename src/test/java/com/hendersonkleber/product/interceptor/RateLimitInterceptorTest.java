@@ -0,0 +1,165 @@
+package com.hendersonkleber.product.interceptor;
+
+import com.hendersonkleber.product.config.RateLimitProperties;
+import com.hendersonkleber.product.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+            new RateLimitProperties(true, "X-Client-Id", List.of("127.0.0.1", "10.0.0.0/8"), 2, 1, 100, Duration.ofMinutes(1),
+                    Map.of("savebatch", new RateLimitProperties.Bucket(1, 1))),
+            meterRegistry
+    );
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Nested
+    class PreHandle {
+        @Test
+        @DisplayName("Should reject client that exhausted its bucket")
+        void shouldRejectClientThatExhaustedItsBucket() throws Exception {
+            // arrange
+            var handler = handler("getById");
+
+            // act
+            interceptor.preHandle(request("a"), response, handler);
+            interceptor.preHandle(request("a"), response, handler);
+
+            // assert
+            var exception = assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(request("a"), response, handler));
+            assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+            assertEquals(1.0, meterRegistry.get("product.requests.shed").tag("reason", "rate_limit").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should keep separate buckets per client")
+        void shouldKeepSeparateBucketsPerClient() throws Exception {
+            // arrange
+            var handler = handler("getById");
+            interceptor.preHandle(request("a"), response, handler);
+            interceptor.preHandle(request("a"), response, handler);
+
+            // act
+            var allowed = interceptor.preHandle(request("b"), response, handler);
+
+            // assert
+            assertTrue(allowed);
+        }
+
+        @Test
+        @DisplayName("Should share one bucket between client ids sent from an untrusted address")
+        void shouldIgnoreClientHeaderFromUntrustedAddress() throws Exception {
+            // arrange
+            var handler = handler("getById");
+            interceptor.preHandle(request("a", "203.0.113.5"), response, handler);
+            interceptor.preHandle(request("b", "203.0.113.5"), response, handler);
+
+            // act & assert
+            assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(request("c", "203.0.113.5"), response, handler));
+            assertTrue(interceptor.preHandle(request("a", "203.0.113.6"), response, handler));
+        }
+
+        @Test
+        @DisplayName("Should trust client ids sent by a proxy in a trusted block")
+        void shouldTrustClientHeaderFromTrustedBlock() throws Exception {
+            // arrange
+            var handler = handler("getById");
+            interceptor.preHandle(request("a", "10.1.2.3"), response, handler);
+            interceptor.preHandle(request("a", "10.1.2.3"), response, handler);
+
+            // act
+            var allowed = interceptor.preHandle(request("b", "10.1.2.3"), response, handler);
+
+            // assert
+            assertTrue(allowed);
+        }
+
+        @Test
+        @DisplayName("Should apply endpoint specific limits")
+        void shouldApplyEndpointSpecificLimits() throws Exception {
+            // arrange
+            var handler = handler("saveBatch");
+
+            // act
+            interceptor.preHandle(request("a"), response, handler);
+
+            // assert
+            assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(request("a"), response, handler));
+            assertTrue(interceptor.preHandle(request("a"), response, handler("getById")));
+        }
+    }
+
+    @Nested
+    class Bucket {
+        @Test
+        @DisplayName("Should refill tokens over time")
+        void shouldRefillTokensOverTime() {
+            // arrange
+            var bucket = new TokenBucket(1, 2, 0);
+            bucket.tryTake(0);
+
+            // act
+            var wait = bucket.tryTake(0);
+            var afterRefill = bucket.tryTake(TimeUnit.MILLISECONDS.toNanos(500));
+
+            // assert
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+            assertEquals(0, afterRefill);
+        }
+    }
+
+    @Nested
+    class Range {
+        @Test
+        @DisplayName("Should match addresses inside the block only")
+        void shouldMatchAddressesInsideBlock() {
+            // arrange
+            var ipv4 = AddressRange.parse("192.168.4.0/22");
+            var ipv6 = AddressRange.parse("fd00::/8");
+
+            // act & assert
+            assertTrue(ipv4.contains("192.168.7.255"));
+            assertFalse(ipv4.contains("192.168.8.0"));
+            assertTrue(ipv6.contains("fd12:3456::1"));
+            assertFalse(ipv6.contains("192.168.4.1"));
+            assertFalse(ipv4.contains("not-an-address"));
+            assertThrows(IllegalArgumentException.class, () -> AddressRange.parse("proxy.internal"));
+        }
+    }
+
+    private static MockHttpServletRequest request(String client) {
+        return request(client, "127.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(String client, String remoteAddress) {
+        var request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    public static class Handlers {
+        public void getById() {
+        }
+
+        public void saveBatch() {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hendersonkleber.product.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        filter.setLoggers("com.example.service.ProductService, com.example.service.ProductSearchService");
+        filter.setLevel("DEBUG");
+        filter.setRate(1000);
+    }
+
+    @Test
+    @DisplayName("Should drop most events at or below the sampled level")
+    void shouldDropMostEventsAtOrBelowSampledLevel() {
+        // arrange
+        var logger = context.getLogger("com.example.service.ProductService");
+        var kept = 0;
+
+        // act
+        for (int i = 0; i < 1000; i++) {
+            if (filter.decide(null, logger, Level.DEBUG, "Finding product by id: {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        // assert
+        assertTrue(kept < 20);
+    }
+
+    @Test
+    @DisplayName("Should always keep write events above the sampled level")
+    void shouldAlwaysKeepWritesAboveSampledLevel() {
+        // arrange
+        var logger = context.getLogger("com.example.service.ProductService");
+
+        // act & assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Creating product", null, null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should never sample warnings and errors, whatever the level")
+    void shouldNeverSampleWarningsAndErrors() {
+        // arrange
+        var logger = context.getLogger("com.example.service.ProductService");
+
+        filter.setLevel("ERROR");
+
+        // act & assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "Request failed", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.ERROR, "Exception occurred", null, null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not sample loggers outside the configured prefixes")
+    void shouldNotSampleLoggersOutsideConfiguredPrefixes() {
+        // arrange
+        var logger = context.getLogger("com.example.datasource.ReplicaLagMonitor");
+
+        // act
+        var reply = filter.decide(null, logger, Level.DEBUG, "Replica is now healthy", null, null);
+
+        // assert
+        assertEquals(FilterReply.NEUTRAL, reply);
+    }
+
+    @Test
+    @DisplayName("Should not consume samples on level checks")
+    void shouldNotConsumeSamplesOnLevelChecks() {
+        // arrange
+        var logger = context.getLogger("com.example.service.ProductService");
+
+        // act
+        var reply = filter.decide(null, logger, Level.DEBUG, null, null, null);
+
+        // assert
+        assertEquals(FilterReply.NEUTRAL, reply);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hendersonkleber.product.search;
+
+import com.hendersonkleber.product.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(0.3);
+        index.put(new ProductResponse(1L, "Café Torrado", BigDecimal.TEN, null, 1L));
+        index.put(new ProductResponse(2L, "Cafeteira Elétrica", BigDecimal.TEN, null, 1L));
+        index.put(new ProductResponse(3L, "Chocolate", BigDecimal.TEN, null, 1L));
+    }
+
+    @Test
+    @DisplayName("Should match prefixes ignoring case and accents")
+    void shouldMatchPrefixesIgnoringCaseAndAccents() {
+        var results = index.search("CAFE", 10);
+
+        assertEquals(2, results.size());
+        assertEquals(1L, results.get(0).id());
+        assertEquals(2L, results.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Should match misspelled names by trigram similarity")
+    void shouldMatchMisspelledNames() {
+        var results = index.search("chocolatte", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(3L, results.getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals")
+    void shouldReflectUpdatesAndRemovals() {
+        index.put(new ProductResponse(3L, "Biscoito", BigDecimal.TEN, null, 1L));
+        index.remove(1L);
+
+        assertTrue(index.search("choc", 10).isEmpty());
+        assertEquals(3L, index.search("bisc", 10).getFirst().id());
+        assertEquals(2L, index.search("caf", 10).getFirst().id());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should ignore an older version of a product")
+    void shouldIgnoreOlderVersion() {
+        index.put(new ProductResponse(3L, "Biscoito", BigDecimal.TEN, null, 3L));
+        index.put(new ProductResponse(3L, "Chocolate", BigDecimal.TEN, null, 2L));
+
+        assertTrue(index.search("choc", 10).isEmpty());
+        assertEquals(3L, index.search("bisc", 10).getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Should keep a removed product out until its removal is forgotten")
+    void shouldKeepRemovedProductOut() {
+        index.remove(3L);
+        var removals = index.removals();
+
+        index.put(new ProductResponse(3L, "Chocolate", BigDecimal.TEN, null, 1L));
+        assertTrue(index.search("choc", 10).isEmpty());
+
+        index.forgetRemovals(removals);
+        index.put(new ProductResponse(3L, "Chocolate", BigDecimal.TEN, null, 1L));
+        assertEquals(3L, index.search("choc", 10).getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Should keep the most similar names when more match than the limit")
+    void shouldKeepMostSimilarNamesWithinLimit() {
+        index.put(new ProductResponse(4L, "Chocolates", BigDecimal.TEN, null, 1L));
+        index.put(new ProductResponse(5L, "Chocolate Amargo", BigDecimal.TEN, null, 1L));
+
+        var results = index.search("xocolate", 2);
+
+        assertEquals(2, results.size());
+        assertEquals(3L, results.get(0).id());
+        assertEquals(4L, results.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Should respect limit")
+    void shouldRespectLimit() {
+        assertEquals(1, index.search("caf", 1).size());
+    }
+}
@@ -0,0 +1,318 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.config.ProductBatchProperties;
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductDeleteRequest;
+import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
+import com.hendersonkleber.product.exception.ResourceNotFoundException;
+import com.hendersonkleber.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Product>> captor;
+
+    private ProductBatchService productBatchService;
+
+    @BeforeEach
+    void setUp() {
+        productBatchService = new ProductBatchService(
+                productRepository,
+                eventPublisher,
+                entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager,
+                JsonMapper.builder().build(),
+                new ProductBatchProperties(2, DataSize.ofKilobytes(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should create and update products in chunks")
+    void shouldCreateAndUpdateProductsInChunks() {
+        // arrange
+        var requests = List.of(
+                new ProductRequest(null, "Henderson", BigDecimal.valueOf(10)),
+                new ProductRequest(7L, "Kleber", BigDecimal.valueOf(20)),
+                new ProductRequest(null, "Product", BigDecimal.valueOf(30))
+        );
+        var existing = new Product(7L, "Old name", BigDecimal.valueOf(5));
+
+        doReturn(List.of()).when(productRepository).findByNameNormalizedIn(any());
+        doReturn(List.of(existing)).when(productRepository).findAllById(any());
+
+        // act
+        var response = productBatchService.save(requests.iterator());
+
+        // assert
+        verify(productRepository, times(2)).findByNameNormalizedIn(any());
+        verify(productRepository, times(2)).saveAll(captor.capture());
+        verify(productRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(3)).publishEvent(any(ProductEvent.class));
+
+        assertEquals(2, response.created());
+        assertEquals(1, response.updated());
+        assertEquals("Kleber", existing.getName());
+        assertEquals(1, captor.getAllValues().getFirst().size());
+    }
+
+    @Test
+    @DisplayName("Should reject batch with invalid items and report every error")
+    void shouldRejectBatchWithInvalidItems() {
+        // arrange
+        var requests = List.of(
+                new ProductRequest(null, "H", BigDecimal.valueOf(10)),
+                new ProductRequest(null, "Henderson", BigDecimal.valueOf(-1))
+        );
+
+        // assert & act
+        var exception = assertThrows(InvalidRequestException.class, () -> productBatchService.save(requests));
+
+        assertEquals(2, exception.getErrors().size());
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reject duplicated names inside the batch")
+    void shouldRejectDuplicatedNamesInsideTheBatch() {
+        // arrange
+        var requests = List.of(
+                new ProductRequest(null, "Henderson", BigDecimal.valueOf(10)),
+                new ProductRequest(null, "HENDERSON", BigDecimal.valueOf(20))
+        );
+
+        // assert & act
+        assertThrows(InvalidRequestException.class, () -> productBatchService.save(requests));
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reject an id repeated in a later chunk")
+    void shouldRejectIdRepeatedInLaterChunk() {
+        // arrange
+        var requests = List.of(
+                new ProductRequest(7L, "Henderson", BigDecimal.valueOf(10)),
+                new ProductRequest(null, "Kleber", BigDecimal.valueOf(20)),
+                new ProductRequest(7L, "Product", BigDecimal.valueOf(30))
+        );
+        var existing = new Product(7L, "Old name", BigDecimal.valueOf(5));
+
+        doReturn(List.of()).when(productRepository).findByNameNormalizedIn(any());
+        doReturn(List.of(existing)).when(productRepository).findAllById(any());
+
+        // assert & act
+        var exception = assertThrows(InvalidRequestException.class, () -> productBatchService.save(requests.iterator()));
+
+        assertEquals(List.of("[2] id: Product id appears more than once in the batch"), exception.getErrors());
+        verify(productRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when a name already exists")
+    void shouldThrowExceptionWhenNameAlreadyExists() {
+        // arrange
+        var requests = List.of(new ProductRequest(null, "Henderson", BigDecimal.valueOf(10)));
+
+        doReturn(List.of(new Product(1L, "HENDERSON", BigDecimal.ONE))).when(productRepository).findByNameNormalizedIn(List.of("henderson"));
+
+        // assert & act
+        assertThrows(ResourceAlreadyExistsException.class, () -> productBatchService.save(requests));
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should map name constraint violation on flush to conflict")
+    void shouldMapNameConstraintViolationOnFlushToConflict() {
+        // arrange
+        var requests = List.of(new ProductRequest(null, "Henderson", BigDecimal.valueOf(10)));
+        var violation = new ConstraintViolationException("duplicate", new SQLException(), Product.NAME_UNIQUE_CONSTRAINT);
+
+        doReturn(List.of()).when(productRepository).findByNameNormalizedIn(any());
+        doThrow(new DataIntegrityViolationException("duplicate", violation)).when(productRepository).flush();
+
+        // assert & act
+        assertThrows(ResourceAlreadyExistsException.class, () -> productBatchService.save(requests));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when an updated product does not exist")
+    void shouldThrowExceptionWhenUpdatedProductDoesNotExist() {
+        // arrange
+        var requests = List.of(new ProductRequest(9L, "Henderson", BigDecimal.valueOf(10)));
+
+        doReturn(List.of()).when(productRepository).findByNameNormalizedIn(any());
+        doReturn(List.of()).when(productRepository).findAllById(any());
+
+        // assert & act
+        assertThrows(ResourceNotFoundException.class, () -> productBatchService.save(requests));
+    }
+
+    @Test
+    @DisplayName("Should reject JSON batch larger than one chunk")
+    void shouldRejectJsonBatchLargerThanOneChunk() {
+        // arrange
+        var requests = List.of(
+                new ProductRequest(null, "Henderson", BigDecimal.valueOf(10)),
+                new ProductRequest(null, "Kleber", BigDecimal.valueOf(20)),
+                new ProductRequest(null, "Product", BigDecimal.valueOf(30))
+        );
+
+        // assert & act
+        assertThrows(InvalidRequestException.class, () -> productBatchService.save(requests));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should read the whole NDJSON body before the transaction starts")
+    void shouldReadWholeNdjsonBodyBeforeTransactionStarts() throws Exception {
+        // arrange
+        var ndjson = """
+                {"name":"Henderson","price":10}
+                {"name":"Kleber","price":20}
+                {"name":"Product","price":30}
+                """;
+        var readInsideTransaction = new AtomicBoolean();
+        var body = new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                if (!mockingDetails(transactionManager).getInvocations().isEmpty()) {
+                    readInsideTransaction.set(true);
+                }
+
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        doReturn(List.of()).when(productRepository).findByNameNormalizedIn(any());
+
+        // act
+        var response = productBatchService.save((InputStream) body);
+
+        // assert
+        assertFalse(readInsideTransaction.get());
+        assertEquals(3, response.created());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should reject NDJSON body larger than the import limit without opening a transaction")
+    void shouldRejectNdjsonBodyLargerThanImportLimit() {
+        // arrange
+        var line = "{\"name\":\"Henderson\",\"price\":10}\n";
+        var body = new ByteArrayInputStream(line.repeat(100).getBytes(StandardCharsets.UTF_8));
+
+        // assert & act
+        assertThrows(InvalidRequestException.class, () -> productBatchService.save(body));
+        verifyNoInteractions(transactionManager, productRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete ids in chunks with one transaction per chunk")
+    void shouldDeleteIdsInChunksWithOneTransactionPerChunk() {
+        // arrange
+        var request = new ProductDeleteRequest(List.of(1L, 2L, 2L, 3L), null, null, null, null);
+
+        doReturn(List.of(1L, 2L)).when(productRepository).deleteAllByIdReturningIds(List.of(1L, 2L));
+        doReturn(List.of()).when(productRepository).deleteAllByIdReturningIds(List.of(3L));
+
+        // act
+        var response = productBatchService.delete(request);
+
+        // assert
+        assertEquals(2, response.deleted());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher).publishEvent(ProductEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(ProductEvent.deleted(2L));
+        verify(eventPublisher, never()).publishEvent(ProductEvent.deleted(3L));
+    }
+
+    @Test
+    @DisplayName("Should delete filtered products until a chunk comes back empty")
+    void shouldDeleteFilteredProductsUntilChunkComesBackEmpty() {
+        // arrange
+        var updatedBefore = LocalDateTime.of(2025, 1, 1, 0, 0);
+        var request = new ProductDeleteRequest(null, null, BigDecimal.TEN, "50%_Off", updatedBefore);
+
+        doReturn(List.of(1L, 2L), List.of(3L), List.of()).when(productRepository)
+                .deleteMatchingReturningIds(isNull(), eq(BigDecimal.TEN), eq("50\\%\\_off"), eq(updatedBefore), anyInt());
+
+        // act
+        var response = productBatchService.delete(request);
+
+        // assert
+        assertEquals(3, response.deleted());
+        verify(productRepository, times(3)).deleteMatchingReturningIds(isNull(), eq(BigDecimal.TEN), eq("50\\%\\_off"), eq(updatedBefore), eq(2));
+        verify(eventPublisher, times(3)).publishEvent(any(ProductEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject delete without ids or filter")
+    void shouldRejectDeleteWithoutIdsOrFilter() {
+        // arrange
+        var request = new ProductDeleteRequest(List.of(), null, null, null, null);
+
+        // assert & act
+        assertThrows(InvalidRequestException.class, () -> productBatchService.delete(request));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject delete with both ids and filter")
+    void shouldRejectDeleteWithBothIdsAndFilter() {
+        // arrange
+        var request = new ProductDeleteRequest(List.of(1L), BigDecimal.ONE, null, null, null);
+
+        // assert & act
+        assertThrows(InvalidRequestException.class, () -> productBatchService.delete(request));
+        verifyNoInteractions(productRepository);
+    }
+}
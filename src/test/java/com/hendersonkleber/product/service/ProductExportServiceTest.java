@@ -0,0 +1,79 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        productExportService = new ProductExportService(productRepository, entityManager, JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("Should export products as NDJSON and detach each entity")
+    void shouldExportProductsAsNdjson() throws Exception {
+        // arrange
+        var output = new ByteArrayOutputStream();
+
+        doReturn(Stream.of(
+                new Product(1L, "Henderson", new BigDecimal("10.00")),
+                new Product(2L, "Kleber", new BigDecimal("20.50"))
+        )).when(productRepository).streamAll();
+
+        // act
+        productExportService.export("ndjson", output);
+
+        // assert
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Henderson\""));
+        assertTrue(lines[1].contains("\"id\":2"));
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    @DisplayName("Should export products as CSV escaping names")
+    void shouldExportProductsAsCsv() throws Exception {
+        // arrange
+        var output = new ByteArrayOutputStream();
+
+        doReturn(Stream.of(new Product(1L, "Henderson, \"Kleber\"", new BigDecimal("10.00"))))
+                .when(productRepository).streamAll();
+
+        // act
+        productExportService.export("csv", output);
+
+        // assert
+        assertEquals(
+                "id,name,price\n1,\"Henderson, \"\"Kleber\"\"\",10.00\n",
+                output.toString(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.change.ProductChangeFollower;
+import com.hendersonkleber.product.config.ProductSearchProperties;
+import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.ProductChangeCursor;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeFollower changeFollower;
+
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        productSearchService = new ProductSearchService(
+                productRepository,
+                changeFollower,
+                new ProductSearchProperties(true, 0.3, Duration.ofSeconds(1), 100)
+        );
+
+        doReturn(ProductChangeCursor.START).when(changeFollower).startPosition();
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get()).when(changeFollower).read(any());
+    }
+
+    @Test
+    @DisplayName("Should apply a change received during the build after the rows it streamed")
+    void shouldApplyChangeReceivedDuringBuildAfterIt() {
+        // arrange
+        doAnswer(invocation -> {
+            productSearchService.onProductEvent(ProductEvent.updated(new ProductResponse(1L, "Biscoito", BigDecimal.TEN, null, 1L)));
+            return Stream.of(new Product(1L, "Chocolate", BigDecimal.TEN));
+        }).when(productRepository).streamAll();
+        doAnswer(invocation -> invocation.getArgument(0)).when(changeFollower).follow(any(), anyInt(), any(), any());
+
+        // act
+        productSearchService.buildIndex();
+
+        // assert
+        assertTrue(productSearchService.search("choc", 10).isEmpty());
+        assertEquals(1L, productSearchService.search("bisc", 10).getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Should apply changes made through other nodes on refresh")
+    void shouldApplyChangesFromOtherNodesOnRefresh() {
+        // arrange
+        var position = new ProductChangeCursor(10, 20);
+
+        doReturn(Stream.of(new Product(1L, "Chocolate", BigDecimal.TEN))).when(productRepository).streamAll();
+        doAnswer(invocation -> invocation.getArgument(0))
+                .doAnswer(invocation -> {
+                    Consumer<ProductResponse> put = invocation.getArgument(2);
+                    Consumer<Long> remove = invocation.getArgument(3);
+
+                    put.accept(new ProductResponse(2L, "Biscoito", BigDecimal.TEN, null, 0L));
+                    remove.accept(1L);
+
+                    return position;
+                })
+                .when(changeFollower).follow(any(), anyInt(), any(), any());
+
+        productSearchService.buildIndex();
+
+        // act
+        productSearchService.refresh();
+        productSearchService.refresh();
+
+        // assert
+        assertTrue(productSearchService.search("choc", 10).isEmpty());
+        assertEquals(2L, productSearchService.search("bisc", 10).getFirst().id());
+        verify(changeFollower).follow(eq(position), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not bring back a product deleted while a refresh re-read it")
+    void shouldNotBringBackProductDeletedDuringRefresh() {
+        // arrange
+        doReturn(Stream.of(new Product(1L, "Chocolate", BigDecimal.TEN))).when(productRepository).streamAll();
+        doAnswer(invocation -> invocation.getArgument(0))
+                .doAnswer(invocation -> {
+                    Consumer<ProductResponse> put = invocation.getArgument(2);
+                    var reread = new ProductResponse(1L, "Chocolate", BigDecimal.TEN, null, 0L);
+
+                    productSearchService.onProductEvent(ProductEvent.deleted(1L));
+                    put.accept(reread);
+
+                    return invocation.getArgument(0);
+                })
+                .when(changeFollower).follow(any(), anyInt(), any(), any());
+
+        productSearchService.buildIndex();
+
+        // act
+        productSearchService.refresh();
+
+        // assert
+        assertTrue(productSearchService.search("choc", 10).isEmpty());
+    }
+}
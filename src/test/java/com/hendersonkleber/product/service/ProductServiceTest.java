@@ -1,10 +1,22 @@
 package com.hendersonkleber.product.service;
 
+import com.hendersonkleber.product.cache.ProductCache;
+import com.hendersonkleber.product.cache.ProductCountCache;
+import com.hendersonkleber.product.config.ProductCacheProperties;
 import com.hendersonkleber.product.domain.Product;
+import com.hendersonkleber.product.dto.PaginatedResponse;
+import com.hendersonkleber.product.dto.ProductCursor;
+import com.hendersonkleber.product.dto.ProductFilter;
 import com.hendersonkleber.product.dto.ProductRequest;
+import com.hendersonkleber.product.dto.ProductResponse;
+import com.hendersonkleber.product.event.ProductEvent;
+import com.hendersonkleber.product.exception.InvalidRequestException;
+import com.hendersonkleber.product.exception.PreconditionFailedException;
 import com.hendersonkleber.product.exception.ResourceAlreadyExistsException;
 import com.hendersonkleber.product.exception.ResourceNotFoundException;
 import com.hendersonkleber.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,12 +25,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
@@ -29,6 +50,24 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCountCache productCountCache;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(
+            new ProductCacheProperties(false, 0, Duration.ZERO, Duration.ZERO),
+            new SimpleMeterRegistry()
+    );
+
+    @Mock
+    private ProductCatalogService productCatalogService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Captor
     private ArgumentCaptor<Product> captor;
 
@@ -45,18 +84,18 @@ class ProductServiceTest {
             int limit = 10;
             String sort = "id";
             String order = "desc";
-            var product = new Product(1L, "Henderson", BigDecimal.valueOf(10));
-            List<Product> content = List.of(product);
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            List<ProductResponse> content = List.of(product);
             Pageable pageRequest = PageRequest.of(page, limit, order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC, sort);
-            Page<Product> pageResponse = new PageImpl<>(content, pageRequest, content.size());
+            Page<ProductResponse> pageResponse = new PageImpl<>(content, pageRequest, content.size());
 
-            doReturn(pageResponse).when(productRepository).findAll(any(Pageable.class));
+            doReturn(pageResponse).when(productRepository).findPage(any(Pageable.class));
 
             // act
-            var response = productService.getAll(page, limit, sort, order);
+            var response = productService.getAll(page, limit, sort, order, true, ProductFilter.NONE);
 
             // assert
-            verify(productRepository, times(1)).findAll(any(Pageable.class));
+            verify(productRepository, times(1)).findPage(any(Pageable.class));
 
             assertNotNull(response);
             assertEquals(content.size(), response.content().size());
@@ -64,6 +103,23 @@ class ProductServiceTest {
             assertEquals(1, response.totalPages());
         }
 
+        @Test
+        @DisplayName("Should serve unfiltered pages from the catalog when it is loaded")
+        void shouldServeUnfilteredPagesFromCatalog() {
+            // arrange
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var page = new PaginatedResponse<>(List.of(product), 1, 1L, false);
+
+            doReturn(Optional.of(page)).when(productCatalogService).getPage(0, 10, "price", "asc", true);
+
+            // act
+            var response = productService.getAll(0, 10, "price", "asc", true, ProductFilter.NONE);
+
+            // assert
+            assertSame(page, response);
+            verifyNoInteractions(productRepository, productCountCache);
+        }
+
         @Test
         @DisplayName("Should return empty content when does not exists products")
         void shouldReturnEmptyContentWhenDoesNotExistsProducts() {
@@ -73,44 +129,226 @@ class ProductServiceTest {
             String sort = "id";
             String order = "desc";
 
-            List<Product> content = List.of();
+            List<ProductResponse> content = List.of();
             Pageable pageRequest = PageRequest.of(page, limit, order.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC, sort);
-            Page<Product> pageResponse = new PageImpl<>(content, pageRequest, content.size());
+            Page<ProductResponse> pageResponse = new PageImpl<>(content, pageRequest, content.size());
 
-            doReturn(pageResponse).when(productRepository).findAll(any(Pageable.class));
+            doReturn(pageResponse).when(productRepository).findPage(any(Pageable.class));
 
             // act
-            var response = productService.getAll(page, limit, sort, order);
+            var response = productService.getAll(page, limit, sort, order, true, ProductFilter.NONE);
 
             // assert
-            verify(productRepository, times(1)).findAll(any(Pageable.class));
+            verify(productRepository, times(1)).findPage(any(Pageable.class));
 
             assertNotNull(response);
             assertEquals(0, response.content().size());
             assertEquals(0, response.totalItems());
             assertEquals(0, response.totalPages());
         }
+
+        @Test
+        @DisplayName("Should use cached total and skip count query")
+        void shouldUseCachedTotalAndSkipCountQuery() {
+            // arrange
+            int page = 0;
+            int limit = 10;
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            Pageable pageRequest = PageRequest.of(page, limit, Sort.Direction.DESC, "id");
+            Slice<ProductResponse> sliceResponse = new SliceImpl<>(List.of(product), pageRequest, true);
+
+            doReturn(OptionalLong.of(25)).when(productCountCache).get();
+            doReturn(sliceResponse).when(productRepository).findSlice(any(Pageable.class));
+
+            // act
+            var response = productService.getAll(page, limit, "id", "desc", true, ProductFilter.NONE);
+
+            // assert
+            verify(productRepository, never()).findPage(any(Pageable.class));
+
+            assertEquals(25, response.totalItems());
+            assertEquals(3, response.totalPages());
+            assertTrue(response.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should skip total when not requested")
+        void shouldSkipTotalWhenNotRequested() {
+            // arrange
+            int page = 0;
+            int limit = 10;
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            Pageable pageRequest = PageRequest.of(page, limit, Sort.Direction.DESC, "id");
+            Slice<ProductResponse> sliceResponse = new SliceImpl<>(List.of(product), pageRequest, false);
+
+            doReturn(sliceResponse).when(productRepository).findSlice(any(Pageable.class));
+
+            // act
+            var response = productService.getAll(page, limit, "id", "desc", false, ProductFilter.NONE);
+
+            // assert
+            verify(productRepository, never()).findPage(any(Pageable.class));
+            verify(productCountCache, never()).get();
+
+            assertEquals(1, response.content().size());
+            assertNull(response.totalItems());
+            assertNull(response.totalPages());
+            assertFalse(response.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should filter page and count only matching products")
+        void shouldFilterPageAndCountOnlyMatchingProducts() {
+            // arrange
+            var filter = new ProductFilter(BigDecimal.ONE, BigDecimal.TEN, "hen");
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(5), null, 0L);
+            var sort = Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id"));
+
+            doReturn(List.of(product)).when(productRepository).findFiltered(filter, sort, 20L, 11);
+            doReturn(21L).when(productRepository).countFiltered(filter);
+
+            // act
+            var response = productService.getAll(2, 10, "price", "asc", true, filter);
+
+            // assert
+            verify(productRepository, never()).findPage(any(Pageable.class));
+            verify(productCountCache, never()).get();
+            verifyNoInteractions(productCatalogService);
+
+            assertEquals(List.of(product), response.content());
+            assertEquals(21, response.totalItems());
+            assertEquals(3, response.totalPages());
+            assertFalse(response.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when minimum price is greater than maximum price")
+        void shouldThrowExceptionWhenMinimumPriceIsGreaterThanMaximumPrice() {
+            // arrange
+            var filter = new ProductFilter(BigDecimal.TEN, BigDecimal.ONE, null);
+
+            // assert & act
+            assertThrows(InvalidRequestException.class, () -> productService.getAll(0, 10, "id", "desc", true, filter));
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    public class GetAllByCursor {
+        @Test
+        @DisplayName("Should return first page with next cursor when more products exist")
+        void shouldReturnFirstPageWithNextCursor() {
+            // arrange
+            int limit = 1;
+            var first = new ProductResponse(2L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var second = new ProductResponse(1L, "Kleber", BigDecimal.valueOf(20), null, 0L);
+
+            doReturn(List.of(first, second)).when(productRepository).findFirst(any(Sort.class), any(Limit.class));
+
+            // act
+            var response = productService.getAllByCursor(null, limit, "id", "desc", ProductFilter.NONE);
+
+            // assert
+            assertEquals(1, response.content().size());
+            assertEquals(first.id(), response.content().getFirst().id());
+            assertNotNull(response.nextCursor());
+
+            var cursor = ProductCursor.decode(response.nextCursor());
+            assertEquals(first.id(), cursor.id());
+            assertEquals("id", cursor.sort());
+        }
+
+        @Test
+        @DisplayName("Should seek after cursor and return no next cursor on last page")
+        void shouldSeekAfterCursor() {
+            // arrange
+            int limit = 10;
+            var cursor = new ProductCursor("price", "asc", 5L, "10.00").encode();
+            var product = new ProductResponse(6L, "Henderson", BigDecimal.valueOf(15), null, 0L);
+
+            doReturn(List.of(product)).when(productRepository)
+                    .seekByPriceAsc(eq(new BigDecimal("10.00")), eq(5L), any(Limit.class));
+
+            // act
+            var response = productService.getAllByCursor(cursor, limit, "price", "asc", ProductFilter.NONE);
+
+            // assert
+            verify(productRepository, never()).findPage(any(Pageable.class));
+            assertEquals(1, response.content().size());
+            assertNull(response.nextCursor());
+        }
+
+        @Test
+        @DisplayName("Should seek filtered products after cursor")
+        void shouldSeekFilteredProductsAfterCursor() {
+            // arrange
+            var filter = new ProductFilter(null, BigDecimal.TEN, null);
+            var position = new ProductCursor("name", "asc", 5L, "Henderson");
+            var product = new ProductResponse(6L, "Kleber", BigDecimal.valueOf(5), null, 0L);
+
+            doReturn(List.of(product)).when(productRepository).seekFiltered(filter, position, Sort.Direction.ASC, 11);
+
+            // act
+            var response = productService.getAllByCursor(position.encode(), 10, "name", "asc", filter);
+
+            // assert
+            verify(productRepository, never()).seekByNameAsc(any(), any(), any(Limit.class));
+            assertEquals(List.of(product), response.content());
+            assertNull(response.nextCursor());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when cursor does not match sort")
+        void shouldThrowExceptionWhenCursorDoesNotMatchSort() {
+            // arrange
+            var cursor = new ProductCursor("name", "asc", 5L, "Henderson").encode();
+
+            // assert & act
+            assertThrows(InvalidRequestException.class, () -> productService.getAllByCursor(cursor, 10, "id", "asc", ProductFilter.NONE));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when cursor is malformed")
+        void shouldThrowExceptionWhenCursorIsMalformed() {
+            assertThrows(InvalidRequestException.class, () -> productService.getAllByCursor("not-a-cursor", 10, "id", "asc", ProductFilter.NONE));
+        }
     }
 
     @Nested
     public class GetById {
+        @Test
+        @DisplayName("Should serve reads from the catalog when it holds the product")
+        void shouldServeReadsFromCatalog() {
+            // arrange
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+
+            doReturn(Optional.of(product)).when(productCatalogService).get(1L);
+
+            // act
+            var response = productService.getById(1L);
+
+            // assert
+            assertSame(product, response);
+            verifyNoInteractions(productRepository);
+        }
+
         @Test
         @DisplayName("Should get by id successfully")
         void shouldGetByIdSuccessfully() {
             // arrange
             Long id = 1L;
-            var product = new Product(id, "Henderson", BigDecimal.valueOf(10));
-            doReturn(Optional.of(product)).when(productRepository).findById(id);
+            var product = new ProductResponse(id, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            doReturn(Optional.of(product)).when(productRepository).findResponseById(id);
 
             // act
             var response = productService.getById(id);
 
             // assert
-            verify(productRepository, times(1)).findById(id);
+            verify(productRepository, times(1)).findResponseById(id);
 
             assertNotNull(response);
-            assertEquals(product.getName(), response.name());
-            assertEquals(product.getPrice(), response.price());
+            assertEquals(product.name(), response.name());
+            assertEquals(product.price(), response.price());
         }
 
         @Test
@@ -118,11 +356,75 @@ class ProductServiceTest {
         void shouldThrowExceptionWhenProductDoesNotExist() {
             // arrange
             Long id = 1L;
-            doReturn(Optional.empty()).when(productRepository).findById(eq(id));
+            doReturn(Optional.empty()).when(productRepository).findResponseById(eq(id));
 
             // assert & act
             assertThrows(ResourceNotFoundException.class, () -> productService.getById(id));
-            verify(productRepository, times(1)).findById(id);
+            verify(productRepository, times(1)).findResponseById(id);
+        }
+
+        @Test
+        @DisplayName("Should serve repeated reads and missing ids from cache")
+        void shouldServeRepeatedReadsFromCache() {
+            // arrange
+            var cache = new ProductCache(
+                    new ProductCacheProperties(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    new SimpleMeterRegistry()
+            );
+            var service = new ProductService(productRepository, productCountCache, cache, productCatalogService, eventPublisher, meterRegistry);
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+
+            doReturn(Optional.of(product)).when(productRepository).findResponseById(1L);
+            doReturn(Optional.empty()).when(productRepository).findResponseById(2L);
+
+            // act
+            service.getById(1L);
+            service.getById(1L);
+            assertThrows(ResourceNotFoundException.class, () -> service.getById(2L));
+            assertThrows(ResourceNotFoundException.class, () -> service.getById(2L));
+
+            // assert
+            verify(productRepository, times(1)).findResponseById(1L);
+            verify(productRepository, times(1)).findResponseById(2L);
+        }
+
+        @Test
+        @DisplayName("Should share one cache load between concurrent reads without counting them as coalesced")
+        void shouldShareOneCacheLoadBetweenConcurrentReads() throws Exception {
+            // arrange
+            var cache = new ProductCache(
+                    new ProductCacheProperties(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    new SimpleMeterRegistry()
+            );
+            var service = new ProductService(productRepository, productCountCache, cache, productCatalogService, eventPublisher, meterRegistry);
+            var product = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var loading = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+
+            doAnswer(invocation -> {
+                loading.countDown();
+                release.await();
+                return Optional.of(product);
+            }).when(productRepository).findResponseById(1L);
+
+            // act
+            ProductResponse first;
+            ProductResponse second;
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var firstRead = executor.submit(() -> service.getById(1L));
+                loading.await();
+                var secondRead = executor.submit(() -> service.getById(1L));
+                release.countDown();
+                first = firstRead.get();
+                second = secondRead.get();
+            }
+
+            // assert
+            verify(productRepository, times(1)).findResponseById(1L);
+            assertEquals(product, first);
+            assertEquals(product, second);
+            assertEquals(0, meterRegistry.counter("product.reads.coalesced", "read", "getById").count());
         }
     }
 
@@ -134,14 +436,14 @@ class ProductServiceTest {
             // arrange
             var request = new ProductRequest(0L, "Henderson", BigDecimal.valueOf(10));
 
-            doReturn(false).when(productRepository).existsByName(request.name());
+            doAnswer(invocation -> invocation.getArgument(0)).when(productRepository).saveAndFlush(any());
 
             // act
             productService.create(request);
 
             // assert
-            verify(productRepository, times(1)).existsByName(request.name());
             verify(productRepository, times(1)).saveAndFlush(captor.capture());
+            verify(eventPublisher).publishEvent(any(ProductEvent.class));
 
             var response = captor.getValue();
 
@@ -156,13 +458,25 @@ class ProductServiceTest {
             // arrange
             var request = new ProductRequest(0L, "Henderson", BigDecimal.valueOf(10));
 
-            doReturn(true).when(productRepository).existsByName(request.name());
+            doThrow(nameConflict()).when(productRepository).saveAndFlush(any());
 
             // assert & act
             assertThrows(ResourceAlreadyExistsException.class, () -> productService.create(request));
 
-            verify(productRepository, times(1)).existsByName(request.name());
-            verify(productRepository, times(0)).save(any());
+            verify(productRepository, times(1)).saveAndFlush(any());
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should rethrow other integrity violations")
+        void shouldRethrowOtherIntegrityViolations() {
+            // arrange
+            var request = new ProductRequest(0L, "Henderson", BigDecimal.valueOf(10));
+
+            doThrow(new DataIntegrityViolationException("not null")).when(productRepository).saveAndFlush(any());
+
+            // assert & act
+            assertThrows(DataIntegrityViolationException.class, () -> productService.create(request));
         }
     }
 
@@ -176,24 +490,25 @@ class ProductServiceTest {
 
             var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
             var product = new Product(id, "Henderson", BigDecimal.valueOf(10));
+            product.setVersion(3L);
 
-            doReturn(false).when(productRepository).existsByName(request.name(), id);
-            doReturn(Optional.of(product)).when(productRepository).findById(id);
+            doReturn(Optional.of(product)).when(productRepository)
+                    .updateById(id, request.name(), "henderson", request.price());
 
             // act
-            productService.update(id, request);
+            var response = productService.update(id, request, null);
 
             // assert
-            verify(productRepository).existsByName(request.name(), id);
-            verify(productRepository).findById(id);
-            verify(productRepository).saveAndFlush(captor.capture());
-
-            var response = captor.getValue();
+            verify(productRepository).updateById(id, request.name(), "henderson", request.price());
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).saveAndFlush(any());
+            verify(eventPublisher).publishEvent(any(ProductEvent.class));
 
             assertNotNull(response);
-            assertEquals(request.id(), response.getId());
-            assertEquals(request.name(), response.getName());
-            assertEquals(request.price(), response.getPrice());
+            assertEquals(request.id(), response.id());
+            assertEquals(request.name(), response.name());
+            assertEquals(request.price(), response.price());
+            assertEquals(3L, response.version());
         }
 
         @Test
@@ -203,14 +518,81 @@ class ProductServiceTest {
             Long id = 1L;
             var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
 
-            doReturn(true).when(productRepository).existsByName(request.name(), request.id());
+            doThrow(nameConflict()).when(productRepository).updateById(any(), any(), any(), any());
 
             // assert & act
-            assertThrows(ResourceAlreadyExistsException.class, () -> productService.update(id, request));
+            assertThrows(ResourceAlreadyExistsException.class, () -> productService.update(id, request, null));
+
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should update when If-Match names the current version")
+        void shouldUpdateWhenIfMatchMatches() {
+            // arrange
+            Long id = 1L;
+            var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
+            var product = new Product(id, "Henderson", BigDecimal.valueOf(10));
+            product.setVersion(5L);
+
+            doReturn(Optional.of(product)).when(productRepository)
+                    .updateByIdAndVersion(id, List.of(4L), request.name(), "henderson", request.price());
+
+            // act
+            var response = productService.update(id, request, "\"2-9\", \"1-4\"");
 
-            verify(productRepository, times(1)).existsByName(request.name(), request.id());
-            verify(productRepository, times(0)).findById(any());
-            verify(productRepository, times(0)).save(any());
+            // assert
+            assertEquals("\"1-5\"", response.etag());
+            verify(productRepository, never()).updateById(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should update when If-Match sends the CBOR tag of the current version")
+        void shouldUpdateWhenIfMatchSendsCborTag() {
+            // arrange
+            Long id = 1L;
+            var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
+            var product = new Product(id, "Henderson", BigDecimal.valueOf(10));
+            product.setVersion(5L);
+
+            doReturn(Optional.of(product)).when(productRepository)
+                    .updateByIdAndVersion(id, List.of(4L), request.name(), "henderson", request.price());
+
+            // act
+            var response = productService.update(id, request, "\"1-4-cbor\"");
+
+            // assert
+            assertEquals("\"1-5-cbor\"", response.etag("cbor"));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when If-Match names a stale version")
+        void shouldThrowExceptionWhenIfMatchIsStale() {
+            // arrange
+            Long id = 1L;
+            var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
+
+            doReturn(Optional.empty()).when(productRepository)
+                    .updateByIdAndVersion(eq(id), eq(List.of(4L)), any(), any(), any());
+            doReturn(true).when(productRepository).existsById(id);
+
+            // assert & act
+            assertThrows(PreconditionFailedException.class, () -> productService.update(id, request, "\"1-4\""));
+
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when If-Match names no version of the product")
+        void shouldThrowExceptionWhenIfMatchHasNoVersion() {
+            // arrange
+            Long id = 1L;
+            var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
+
+            // assert & act
+            assertThrows(PreconditionFailedException.class, () -> productService.update(id, request, "W/\"abc\""));
+
+            verifyNoInteractions(productRepository);
         }
 
         @Test
@@ -220,32 +602,104 @@ class ProductServiceTest {
             Long id = 1L;
             var request = new ProductRequest(id, "Henderson", BigDecimal.valueOf(10));
 
-            doReturn(false).when(productRepository).existsByName(request.name(), request.id());
-            doReturn(Optional.empty()).when(productRepository).findById(id);
+            doReturn(Optional.empty()).when(productRepository).updateById(any(), any(), any(), any());
 
             // assert & act
-            assertThrows(ResourceNotFoundException.class, () -> productService.update(id, request));
+            assertThrows(ResourceNotFoundException.class, () -> productService.update(id, request, null));
+
+            verify(productRepository, never()).existsById(any());
+        }
+    }
+
+    @Nested
+    public class GetByIds {
+        @Test
+        @DisplayName("Should return products in request order and report missing ids")
+        void shouldReturnProductsInRequestOrderAndReportMissingIds() {
+            // arrange
+            var first = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var third = new ProductResponse(3L, "Kleber", BigDecimal.valueOf(20), null, 0L);
 
-            verify(productRepository, times(1)).findById(id);
-            verify(productRepository, times(0)).save(any());
+            doReturn(List.of(first, third)).when(productRepository).findResponsesByIdIn(any());
+
+            // act
+            var response = productService.getByIds(List.of(3L, 2L, 1L, 3L));
+
+            // assert
+            verify(productRepository, times(1)).findResponsesByIdIn(any());
+
+            assertEquals(List.of(third, first), response.content());
+            assertEquals(List.of(2L), response.missing());
+        }
+
+        @Test
+        @DisplayName("Should query only ids missing from cache without caching unknown ids")
+        void shouldQueryOnlyIdsMissingFromCache() {
+            // arrange
+            var cache = new ProductCache(
+                    new ProductCacheProperties(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    new SimpleMeterRegistry()
+            );
+            var service = new ProductService(productRepository, productCountCache, cache, productCatalogService, eventPublisher, meterRegistry);
+            var first = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var second = new ProductResponse(2L, "Kleber", BigDecimal.valueOf(20), null, 0L);
+
+            doReturn(Optional.of(first)).when(productRepository).findResponseById(1L);
+            doReturn(List.of(second)).when(productRepository).findResponsesByIdIn(any());
+            service.getById(1L);
+
+            // act
+            var response = service.getByIds(List.of(1L, 2L, 9L));
+            var repeated = service.getByIds(List.of(2L, 9L));
+
+            // assert
+            verify(productRepository, times(1)).findResponsesByIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of(2L, 9L))));
+            verify(productRepository, times(1)).findResponsesByIdIn(List.of(9L));
+
+            assertEquals(List.of(first, second), response.content());
+            assertEquals(List.of(9L), response.missing());
+            assertEquals(List.of(9L), repeated.missing());
+        }
+
+        @Test
+        @DisplayName("Should serve ids held by the catalog without querying them")
+        void shouldServeIdsHeldByCatalog() {
+            // arrange
+            var first = new ProductResponse(1L, "Henderson", BigDecimal.valueOf(10), null, 0L);
+            var second = new ProductResponse(2L, "Kleber", BigDecimal.valueOf(20), null, 0L);
+
+            doReturn(Optional.empty()).when(productCatalogService).get(2L);
+            doReturn(Optional.of(first)).when(productCatalogService).get(1L);
+            doReturn(List.of(second)).when(productRepository).findResponsesByIdIn(any());
+
+            // act
+            var response = productService.getByIds(List.of(2L, 1L));
+
+            // assert
+            verify(productRepository, times(1)).findResponsesByIdIn(List.of(2L));
+
+            assertEquals(List.of(second, first), response.content());
+            assertTrue(response.missing().isEmpty());
         }
     }
 
     @Nested
     public class Delete {
         @Test
-        @DisplayName("Should delete")
-        void shouldDelete() {
+        @DisplayName("Should delete with a single statement")
+        void shouldDeleteWithSingleStatement() {
             // arrange
             Long id = 1L;
-            doReturn(true).when(productRepository).existsById(eq(id));
+            doReturn(1).when(productRepository).deleteDirectlyById(eq(id));
 
             // act
             productService.delete(id);
 
             // assert
-            verify(productRepository, times(1)).existsById(id);
-            verify(productRepository, times(1)).deleteById(id);
+            verify(productRepository, times(1)).deleteDirectlyById(id);
+            verify(productRepository, never()).existsById(any());
+            verify(productRepository, never()).deleteById(any());
+            verify(eventPublisher).publishEvent(ProductEvent.deleted(id));
         }
 
         @Test
@@ -253,12 +707,17 @@ class ProductServiceTest {
         void shouldThrowExceptionWhenProductDoesNotExist() {
             // arrange
             Long id = 1L;
-            doReturn(false).when(productRepository).existsById(eq(id));
+            doReturn(0).when(productRepository).deleteDirectlyById(eq(id));
 
             // assert & act
             assertThrows(ResourceNotFoundException.class, () -> productService.delete(id));
 
-            verify(productRepository, times(1)).existsById(id);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
-}
\ No newline at end of file
+
+    private static DataIntegrityViolationException nameConflict() {
+        var violation = new ConstraintViolationException("duplicate", new SQLException(), Product.NAME_UNIQUE_CONSTRAINT);
+        return new DataIntegrityViolationException("duplicate", violation);
+    }
+}
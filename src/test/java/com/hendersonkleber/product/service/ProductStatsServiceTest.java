@@ -0,0 +1,108 @@
+package com.hendersonkleber.product.service;
+
+import com.hendersonkleber.product.dto.ProductStatsResponse;
+import com.hendersonkleber.product.repository.ProductStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStatsServiceTest {
+    @Mock
+    private ProductStatsRepository productStatsRepository;
+
+    @InjectMocks
+    private ProductStatsService productStatsService;
+
+    @Test
+    @DisplayName("Should sum bucket totals into count, average and histogram")
+    void shouldSumBucketTotalsIntoCountAverageAndHistogram() {
+        // arrange
+        doReturn(List.of(bucket(-6, 2, "0.04"), bucket(3, 1, "12.00"), bucket(4, 3, "90.00"))).when(productStatsRepository).sumPriceBuckets();
+        doReturn(range("0.01", "45.00")).when(productStatsRepository).findPriceRange();
+
+        // act
+        var response = productStatsService.getStats();
+
+        // assert
+        assertEquals(6, response.count());
+        assertEquals(new BigDecimal("0.01"), response.minPrice());
+        assertEquals(new BigDecimal("45.00"), response.maxPrice());
+        assertEquals(new BigDecimal("17.01"), response.averagePrice());
+        assertEquals(List.of(
+                new ProductStatsResponse.PriceBucket(new BigDecimal("0.01"), new BigDecimal("0.02"), 2),
+                new ProductStatsResponse.PriceBucket(new BigDecimal("10"), new BigDecimal("20"), 1),
+                new ProductStatsResponse.PriceBucket(new BigDecimal("20"), new BigDecimal("50"), 3)
+        ), response.histogram());
+    }
+
+    @Test
+    @DisplayName("Should return no average for an empty catalog")
+    void shouldReturnNoAverageForEmptyCatalog() {
+        // arrange
+        doReturn(List.of()).when(productStatsRepository).sumPriceBuckets();
+        doReturn(range(null, null)).when(productStatsRepository).findPriceRange();
+
+        // act
+        var response = productStatsService.getStats();
+
+        // assert
+        assertEquals(0, response.count());
+        assertNull(response.averagePrice());
+        assertNull(response.minPrice());
+        assertTrue(response.histogram().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should map buckets to the 1-2-5 series")
+    void shouldMapBucketsToOneTwoFiveSeries() {
+        assertEquals(new BigDecimal("1"), ProductStatsService.lowerBound(0));
+        assertEquals(new BigDecimal("2"), ProductStatsService.lowerBound(1));
+        assertEquals(new BigDecimal("5"), ProductStatsService.lowerBound(2));
+        assertEquals(new BigDecimal("100"), ProductStatsService.lowerBound(6));
+        assertEquals(new BigDecimal("0.5"), ProductStatsService.lowerBound(-1));
+        assertEquals(new BigDecimal("0.01"), ProductStatsService.lowerBound(-6));
+    }
+
+    private static ProductStatsRepository.PriceBucketTotal bucket(Integer bucket, long count, String sum) {
+        return new ProductStatsRepository.PriceBucketTotal() {
+            @Override
+            public Integer getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public long getProductCount() {
+                return count;
+            }
+
+            @Override
+            public BigDecimal getPriceSum() {
+                return new BigDecimal(sum);
+            }
+        };
+    }
+
+    private static ProductStatsRepository.PriceRange range(String min, String max) {
+        return new ProductStatsRepository.PriceRange() {
+            @Override
+            public BigDecimal getMinPrice() {
+                return min == null ? null : new BigDecimal(min);
+            }
+
+            @Override
+            public BigDecimal getMaxPrice() {
+                return max == null ? null : new BigDecimal(max);
+            }
+        };
+    }
+}